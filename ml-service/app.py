@@ -134,8 +134,8 @@ def detect_license_plate_real(image_data):
     try:
         start_time = time.time()
         
-        # Decode base64 image
-        image_bytes = base64.b64decode(image_data)
+        # Decode base64 image (raw uploads arrive as bytes already)
+        image_bytes = image_data if isinstance(image_data, bytes) else base64.b64decode(image_data)
         image = Image.open(io.BytesIO(image_bytes))
         image_np = np.array(image)
         
@@ -246,6 +246,31 @@ def detect_plate():
             "error": str(e)
         }), 500
 
+@app.route('/detect/raw', methods=['POST'])
+def detect_plate_raw():
+    """Binary upload: request body is the image itself, no base64/JSON wrapping"""
+    try:
+        image_bytes = request.get_data()
+        
+        if not image_bytes:
+            return jsonify({"error": "No image data provided"}), 400
+        
+        print(f"📨 Received REAL raw detection request ({len(image_bytes)} bytes)")
+        
+        result = detect_license_plate_real(image_bytes)
+        print(f"📝 REAL Result: {result}")
+        
+        return jsonify(result)
+        
+    except Exception as e:
+        print(f"❌ API Error: {e}")
+        return jsonify({
+            "license_plate": "API_ERROR",
+            "confidence": 0.0,
+            "success": False,
+            "error": str(e)
+        }), 500
+
 @app.route('/health', methods=['GET'])
 def health_check():
     try:
@@ -0,0 +1,75 @@
+package com.smartlpd.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Brings table-backed id sequences (how Hibernate emulates sequences on MySQL) past the ids already
+// in their tables. With ddl-auto=update Hibernate creates a missing sequence table at next_val = 1,
+// so on a database that used AUTO_INCREMENT ids the pooled optimizer would hand out taken ids.
+// Runs after the EntityManagerFactory has updated the schema and before any request can insert.
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Allocation sizes must match the entities' @SequenceGenerator
+    static final List<SequenceTable> SEQUENCES = List.of(
+            new SequenceTable("detection_history_seq", "detection_history", 50),
+            new SequenceTable("fines_seq", "fines", 50)
+    );
+
+    record SequenceTable(String sequence, String table, int allocationSize) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void repairSequences() {
+        for (SequenceTable sequence : SEQUENCES) {
+            repair(sequence);
+        }
+    }
+
+    // The pooled optimizer hands out the block of ids ending at next_val, so next_val must be at
+    // least MAX(id) + allocationSize. Only ever raises it, so concurrent instances cannot go backwards.
+    // Returns the next_val now in place, or -1 when the sequence is native rather than a table.
+    long repair(SequenceTable sequence) {
+        List<Long> current;
+        try {
+            current = jdbcTemplate.queryForList("SELECT next_val FROM " + sequence.sequence(), Long.class);
+        } catch (BadSqlGrammarException e) {
+            // Native sequences (H2, PostgreSQL) have no next_val table; nothing to repair
+            log.debug("{} is not a sequence table, skipping", sequence.sequence());
+            return -1;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + sequence.table(), Long.class);
+        long required = maxId + sequence.allocationSize();
+
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + sequence.sequence() + " (next_val) VALUES (?)", required);
+            log.info("Seeded {} at {} (max {} id {})", sequence.sequence(), required, sequence.table(), maxId);
+            return required;
+        }
+
+        int raised = jdbcTemplate.update(
+                "UPDATE " + sequence.sequence() + " SET next_val = ? WHERE next_val < ?", required, required);
+        if (raised > 0) {
+            log.warn("Raised {} from {} to {} (max {} id {})",
+                    sequence.sequence(), current.get(0), required, sequence.table(), maxId);
+            return required;
+        }
+        return current.get(0);
+    }
+}
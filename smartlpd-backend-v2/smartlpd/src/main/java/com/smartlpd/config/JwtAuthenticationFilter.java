@@ -1,8 +1,17 @@
 package com.smartlpd.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartlpd.util.JwtClaims;
 import com.smartlpd.util.JwtUtil;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,13 +23,65 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final JwtUtil jwtUtil;
+
+    // SHA-256 of the token -> verified principal, so a client reusing its token skips the HS256 check.
+    // Each entry expires with its token (capped at max-ttl); only valid tokens are cached.
+    private final Cache<String, VerifiedPrincipal> verifiedTokens;
+
+    // Per-request token cost, split by how the token was resolved
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                                   @Value("${jwt.cache.max-entries:10000}") long maxEntries,
+                                   @Value("${jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.cachedTimer = resolveTimer(meterRegistry, "cached");
+        this.verifiedTimer = resolveTimer(meterRegistry, "verified");
+        this.rejectedTimer = resolveTimer(meterRegistry, "rejected");
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, VerifiedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedPrincipal principal, long currentTime) {
+                        if (principal.expiresAt == null) {
+                            return maxTtlNanos;
+                        }
+                        long untilExpiry = Duration.between(Instant.now(), principal.expiresAt).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -29,18 +90,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-                String role = jwtUtil.extractRole(jwt);
-
-                // Create authorities with ROLE_ prefix for Spring Security
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
-
+            VerifiedPrincipal principal = jwt == null ? null : resolve(jwt);
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                principal.username,
                                 null,
-                                Collections.singletonList(authority)
+                                principal.authorities
                         );
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -53,6 +109,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Cached principal for the token, or null when the token does not verify
+    VerifiedPrincipal resolve(String jwt) {
+        long start = System.nanoTime();
+        String key = digest(jwt);
+        VerifiedPrincipal cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parse(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        VerifiedPrincipal principal = new VerifiedPrincipal(claims);
+        verifiedTokens.put(key, principal);
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private static Timer resolveTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("smartlpd.jwt.resolve")
+                .description("Time to turn a bearer token into a principal")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = verifiedTokens.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", verifiedTokens.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private static String digest(String jwt) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -60,4 +166,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    static final class VerifiedPrincipal {
+        final String username;
+        final Instant expiresAt;
+        // Create authorities with ROLE_ prefix for Spring Security
+        final List<GrantedAuthority> authorities;
+
+        VerifiedPrincipal(JwtClaims claims) {
+            this.username = claims.getUsername();
+            this.expiresAt = claims.getExpiresAt();
+            this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.getRole()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartlpd.config;
+
+import com.smartlpd.service.FineEventBroadcaster;
+import com.smartlpd.service.FineService;
+import com.smartlpd.service.LicensePlateService;
+import com.smartlpd.service.OverdueFineSweeper;
+import com.smartlpd.service.PasswordHashingExecutor;
+import com.smartlpd.service.RollupService;
+import com.smartlpd.service.UserCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Publishes the numeric fields of the existing stats endpoints as gauges (queue depths, pool usage,
+// cache hit rates, index sizes), so the Prometheus scrape carries them without a second set of counters.
+// Latency histograms come from the timers: http.server.requests, spring.data.repository.invocations,
+// smartlpd.recognition and smartlpd.jwt.resolve.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder smartlpdStatsMetrics(LicensePlateService licensePlateService,
+                                            FineService fineService,
+                                            FineEventBroadcaster fineEventBroadcaster,
+                                            OverdueFineSweeper overdueFineSweeper,
+                                            RollupService rollupService,
+                                            PasswordHashingExecutor passwordHashingExecutor,
+                                            UserCache userCache,
+                                            JwtAuthenticationFilter jwtAuthenticationFilter,
+                                            RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            bindStats(registry, "smartlpd.recognition.engine", licensePlateService::getRecognitionEngineStats);
+            bindStats(registry, "smartlpd.detection.cache", licensePlateService::getCacheStats);
+            bindStats(registry, "smartlpd.detection.history", licensePlateService::getHistoryWriterStats);
+            bindStats(registry, "smartlpd.detection.watchlist", licensePlateService::getWatchlistStats);
+            bindStats(registry, "smartlpd.fines", fineService::getFineStatistics);
+            bindStats(registry, "smartlpd.fines.lookup.cache", fineService::getFineLookupCacheStats);
+            bindStats(registry, "smartlpd.fines.search", fineService::getPlateSearchStats);
+            bindStats(registry, "smartlpd.fines.events", fineEventBroadcaster::getStats);
+            bindStats(registry, "smartlpd.fines.overdue", overdueFineSweeper::getStats);
+            bindStats(registry, "smartlpd.rollups", rollupService::getStats);
+            bindStats(registry, "smartlpd.auth.hashing", passwordHashingExecutor::getStats);
+            bindStats(registry, "smartlpd.auth.user.cache", userCache::getStats);
+            bindStats(registry, "smartlpd.jwt.cache", jwtAuthenticationFilter::getStats);
+            bindStats(registry, "smartlpd.ratelimit", rateLimitFilter::getStats);
+        };
+    }
+
+    // One gauge per numeric entry present at startup; queueDepth under smartlpd.detection.history
+    // becomes smartlpd.detection.history.queue.depth
+    private static void bindStats(MeterRegistry registry, String prefix, Supplier<Map<String, Object>> stats) {
+        stats.get().forEach((key, value) -> {
+            if (value instanceof Number) {
+                Gauge.builder(prefix + "." + key.replaceAll("([a-z0-9])([A-Z])", "$1.$2").toLowerCase(Locale.ROOT),
+                                stats, source -> {
+                                    Object current = source.get().get(key);
+                                    return current instanceof Number ? ((Number) current).doubleValue() : Double.NaN;
+                                })
+                        // The supplier is a lambda nothing else holds; a weak reference would read NaN
+                        .strongReference(true)
+                        .register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package com.smartlpd.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartlpd.model.UserRole;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-client token buckets on the expensive public endpoints: detection (ML calls) and fine checks
+// (plate lookups). Signed-in users are keyed by JWT subject with their role's quota, everyone else
+// by client IP. Runs after JwtAuthenticationFilter so the subject is known.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DETECT = "detect";
+    private static final String FINE_CHECK = "fine-check";
+    // The bucket that admitted a request, for handlers whose cost is only known once the body is read
+    private static final String BUCKET_ATTRIBUTE = RateLimitFilter.class.getName() + ".bucket";
+
+    public static class RateLimitExceededException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public RateLimitExceededException(long retryAfterSeconds) {
+            super("Too many requests, retry in " + retryAfterSeconds + " seconds", null, false, false);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    // "<permits per minute>/<burst>", e.g. 30/10
+    static final class Quota {
+        final int permitsPerMinute;
+        final int burst;
+
+        Quota(String spec) {
+            String[] parts = spec.split("/");
+            this.permitsPerMinute = Integer.parseInt(parts[0].trim());
+            this.burst = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : permitsPerMinute;
+        }
+    }
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    // "<route>.<tier>" -> quota, tier being anonymous or a lower-case UserRole
+    private final Map<String, Quota> quotas = new HashMap<>();
+    // Idle clients fall out after the expiry, and the size bound caps memory under key floods
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final Map<String, LongAdder> rejected = Map.of(DETECT, new LongAdder(), FINE_CHECK, new LongAdder());
+
+    public RateLimitFilter(@Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Value("${ratelimit.max-keys:100000}") long maxKeys,
+                           @Value("${ratelimit.idle-expiry-seconds:600}") long idleExpirySeconds,
+                           @Value("${ratelimit.detect.anonymous:20/5}") String detectAnonymous,
+                           @Value("${ratelimit.detect.citizen:30/10}") String detectCitizen,
+                           @Value("${ratelimit.detect.authority:120/30}") String detectAuthority,
+                           @Value("${ratelimit.fine-check.anonymous:30/10}") String fineCheckAnonymous,
+                           @Value("${ratelimit.fine-check.citizen:60/20}") String fineCheckCitizen,
+                           @Value("${ratelimit.fine-check.authority:600/100}") String fineCheckAuthority) {
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        quotas.put(DETECT + ".anonymous", new Quota(detectAnonymous));
+        quotas.put(DETECT + ".citizen", new Quota(detectCitizen));
+        quotas.put(DETECT + ".authority", new Quota(detectAuthority));
+        quotas.put(FINE_CHECK + ".anonymous", new Quota(fineCheckAnonymous));
+        quotas.put(FINE_CHECK + ".citizen", new Quota(fineCheckCitizen));
+        quotas.put(FINE_CHECK + ".authority", new Quota(fineCheckAuthority));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleExpirySeconds))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || route(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String route = route(request);
+        String tier = "anonymous";
+        String client = "ip:" + clientIp(request);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            tier = tierOf(authentication);
+            client = "user:" + authentication.getName();
+        }
+
+        Quota quota = quotas.get(route + "." + tier);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(route + "|" + tier + "|" + client,
+                key -> new TokenBucket(quota.permitsPerMinute, quota.burst, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            allowed.increment();
+            request.setAttribute(BUCKET_ATTRIBUTE, bucket);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(route).increment();
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Too many requests, retry in "
+                + retryAfterSeconds + " seconds\"}");
+    }
+
+    // Charges an admitted detection for the permits beyond the one the filter took, e.g. the rest
+    // of a batch's images. No-op when the request was not rate limited.
+    public void acquireAdditional(HttpServletRequest request, int permits) {
+        TokenBucket bucket = (TokenBucket) request.getAttribute(BUCKET_ATTRIBUTE);
+        if (bucket == null || permits <= 0) {
+            return;
+        }
+        long waitNanos = bucket.tryAcquire(System.nanoTime(), permits);
+        if (waitNanos > 0) {
+            rejected.get(DETECT).increment();
+            throw new RateLimitExceededException(retryAfterSeconds(waitNanos));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedClients", buckets.estimatedSize());
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedDetect", rejected.get(DETECT).sum());
+        stats.put("rejectedFineCheck", rejected.get(FINE_CHECK).sum());
+        return stats;
+    }
+
+    // Only the calls that reach the ML service or scan plates; stats endpoints are not limited
+    private static String route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if ("POST".equals(method)
+                && (path.equals("/api/detect") || path.equals("/api/detect/upload") || path.equals("/api/detect/batch"))) {
+            return DETECT;
+        }
+        if ("GET".equals(method) && (path.equals("/api/fines/check") || path.equals("/api/fines/candidates"))) {
+            return FINE_CHECK;
+        }
+        return null;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // AUTHORITY outranks CITIZEN; an unknown role gets the citizen quota
+    private static String tierOf(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (("ROLE_" + UserRole.AUTHORITY.name()).equals(authority.getAuthority())) {
+                return UserRole.AUTHORITY.name().toLowerCase(Locale.ROOT);
+            }
+        }
+        return UserRole.CITIZEN.name().toLowerCase(Locale.ROOT);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartlpd.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket held as one timestamp (the GCRA form): the instant the bucket would be full again.
+// Taking a token pushes that instant forward by one refill interval with a single CAS, so
+// concurrent requests on the same key never lock.
+public final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int permitsPerMinute, int burst, long nowNanos) {
+        this.refillIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.capacityNanos = refillIntervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until the next one is available
+    public long tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    // Admitted as soon as one token is available, but charged all the permits: a cost larger than
+    // the burst still goes through and the client waits out the difference on its next call
+    public long tryAcquire(long nowNanos, int permits) {
+        while (true) {
+            long current = fullAt.get();
+            long start = Math.max(current, nowNanos);
+            long waitNanos = start + refillIntervalNanos - nowNanos - capacityNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, start + refillIntervalNanos * permits)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartlpd.controller;
 
+import com.smartlpd.config.JwtAuthenticationFilter;
 import com.smartlpd.dto.AuthResponse;
 import com.smartlpd.dto.LoginRequest;
 import com.smartlpd.dto.RegisterRequest;
@@ -7,8 +8,12 @@ import com.smartlpd.model.User;
 import com.smartlpd.model.UserRole;
 import com.smartlpd.repository.UserRepository;
 import com.smartlpd.service.AuthService;
+import com.smartlpd.service.PasswordHashingExecutor;
+import com.smartlpd.service.UserCache;
 import com.smartlpd.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -33,6 +38,15 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private UserCache userCache;
+
     @PostMapping("/register")
     public AuthResponse register(@RequestBody RegisterRequest request) {
         return authService.register(request);
@@ -43,6 +57,29 @@ public class AuthController {
         return authService.login(request);
     }
 
+    // Hashing pool is saturated: fail fast so clients back off instead of piling onto the queue
+    @ExceptionHandler(PasswordHashingExecutor.HashingRejectedException.class)
+    public ResponseEntity<AuthResponse> handleHashingRejected(PasswordHashingExecutor.HashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingExecutor.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, "Too many sign-ins in progress, please retry shortly", false, null, null));
+    }
+
+    @GetMapping("/hashing/stats")
+    public Map<String, Object> getHashingStats() {
+        return passwordHashingExecutor.getStats();
+    }
+
+    @GetMapping("/user-cache/stats")
+    public Map<String, Object> getUserCacheStats() {
+        return userCache.getStats();
+    }
+
+    @GetMapping("/token-cache/stats")
+    public Map<String, Object> getTokenCacheStats() {
+        return jwtAuthenticationFilter.getStats();
+    }
+
     // GET endpoints for easy browser testing
     @GetMapping("/test")
     public String test() {
@@ -87,6 +124,7 @@ public class AuthController {
                     UserRole.CITIZEN
             );
             userRepository.save(citizenUser);
+            userCache.invalidateAll();
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -1,10 +1,24 @@
 package com.smartlpd.controller;
 
+import com.smartlpd.config.RateLimitFilter;
+import com.smartlpd.dto.BatchDetectionRequest;
 import com.smartlpd.dto.DetectionRequest;
 import com.smartlpd.dto.DetectionResponse;
 import com.smartlpd.service.LicensePlateService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -14,11 +28,80 @@ public class DetectionController {
     @Autowired
     private LicensePlateService licensePlateService;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Value("${ml.batch.max-images:100}")
+    private int maxBatchImages;
+
     @PostMapping("/detect")
-    public DetectionResponse detectLicensePlate(@RequestBody DetectionRequest request) {
+    public Mono<DetectionResponse> detectLicensePlate(@RequestBody DetectionRequest request) {
+        // Returned Mono is handled as a deferred result, so the request thread is released
+        // while the ML service works
         return licensePlateService.detectLicensePlate(request);
     }
 
+    // Raw image body; bytes are streamed to the ML service instead of being decoded into a String
+    @PostMapping(value = "/detect/upload",
+            consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE})
+    public Mono<DetectionResponse> detectLicensePlateUpload(HttpServletRequest request) {
+        return licensePlateService.detectLicensePlate(request::getInputStream, request.getContentLengthLong());
+    }
+
+    // Multipart upload; the part is spooled to disk by the container and streamed from there
+    @PostMapping(value = "/detect/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<DetectionResponse> detectLicensePlateMultipart(@RequestPart("image") MultipartFile image) {
+        return licensePlateService.detectLicensePlate(image::getInputStream, image.getSize());
+    }
+
+    // Streams one result per image as NDJSON (or a JSON array for application/json), in request order
+    @PostMapping(value = "/detect/batch", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<DetectionResponse> detectLicensePlates(@RequestBody BatchDetectionRequest request,
+                                                       HttpServletRequest httpRequest) {
+        if (request.getImages() == null || request.getImages().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one image is required");
+        }
+        if (request.getImages().size() > maxBatchImages) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchImages + " images");
+        }
+        // Each image is its own ML call, so the batch costs one detect token per image
+        rateLimitFilter.acquireAdditional(httpRequest, request.getImages().size() - 1);
+        return licensePlateService.detectLicensePlates(request.getImages());
+    }
+
+    @ExceptionHandler(RateLimitFilter.RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitFilter.RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("success", false, "message", e.getMessage()));
+    }
+
+    @GetMapping("/detect/cache/stats")
+    public Map<String, Object> getDetectionCacheStats() {
+        return Map.of("success", true, "stats", licensePlateService.getCacheStats());
+    }
+
+    @GetMapping("/ml/status")
+    public Map<String, Object> getMLServiceStatus() {
+        return Map.of("success", true, "stats", licensePlateService.getRecognitionEngineStats());
+    }
+
+    @GetMapping("/detect/history/stats")
+    public Map<String, Object> getDetectionHistoryStats() {
+        return Map.of("success", true, "stats", licensePlateService.getHistoryWriterStats());
+    }
+
+    @GetMapping("/detect/watchlist/stats")
+    public Map<String, Object> getWatchlistStats() {
+        return Map.of("success", true, "stats", licensePlateService.getWatchlistStats());
+    }
+
+    @GetMapping("/ratelimit/stats")
+    public Map<String, Object> getRateLimitStats() {
+        return Map.of("success", true, "stats", rateLimitFilter.getStats());
+    }
+
     @GetMapping("/test")
     public String test() {
         return "SmartLPD Backend is running!";
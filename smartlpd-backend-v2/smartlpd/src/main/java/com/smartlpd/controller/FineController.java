@@ -1,12 +1,33 @@
 package com.smartlpd.controller;
 
+import com.smartlpd.dto.BulkFineRequest;
+import com.smartlpd.dto.BulkFineResult;
+import com.smartlpd.dto.FinePage;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.dto.PaymentResult;
 import com.smartlpd.model.Fine;
 import com.smartlpd.model.FineStatus;
+import com.smartlpd.service.FineEventBroadcaster;
+import com.smartlpd.service.FineExportService;
 import com.smartlpd.service.FineService;
+import com.smartlpd.service.OverdueFineSweeper;
+import com.smartlpd.service.PlateMatchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -17,14 +38,31 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class FineController {
 
+    private static final Logger log = LoggerFactory.getLogger(FineController.class);
+
     @Autowired
     private FineService fineService;
 
+    @Autowired
+    private FineExportService fineExportService;
+
+    @Autowired
+    private OverdueFineSweeper overdueFineSweeper;
+
+    @Autowired
+    private FineEventBroadcaster fineEventBroadcaster;
+
+    @Value("${fines.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${fines.bulk.max-rows:10000}")
+    private int maxBulkRows;
+
     // For authorities to create fines
     @PostMapping
     public ResponseEntity<?> createFine(@RequestBody Map<String, Object> request) {
         try {
-            System.out.println("📝 Creating fine with data: " + request);
+            log.info("Creating fine: {}", request);
 
             String licensePlateNumber = (String) request.get("licensePlateNumber");
             Double amount = Double.valueOf(request.get("amount").toString());
@@ -39,8 +77,7 @@ public class FineController {
 
             return ResponseEntity.ok(Map.of("success", true, "fine", fine));
         } catch (Exception e) {
-            System.out.println("❌ Error creating fine: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating fine: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "Error creating fine: " + e.getMessage()
@@ -48,11 +85,39 @@ public class FineController {
         }
     }
 
+    // For authorities to issue many fines at once (enforcement campaigns); one result per row
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createFines(@RequestBody BulkFineRequest request) {
+        if (request.getFines() == null || request.getFines().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "At least one fine is required"
+            ));
+        }
+        if (request.getFines().size() > maxBulkRows) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "At most " + maxBulkRows + " fines per request"
+            ));
+        }
+
+        // Use a default issuer for now, as createFine does
+        List<BulkFineResult> results = fineService.createFines(request.getFines(), "system");
+        long created = results.stream().filter(BulkFineResult::isSuccess).count();
+
+        return ResponseEntity.ok(Map.of(
+                "success", created == results.size(),
+                "created", created,
+                "failed", results.size() - created,
+                "results", results
+        ));
+    }
+
     // For citizens to check their fines
     @GetMapping("/check")
     public ResponseEntity<?> checkFines(@RequestParam String licensePlateNumber) {
         try {
-            System.out.println("🔍 Checking fines for: " + licensePlateNumber);
+            log.debug("Checking fines for {}", licensePlateNumber);
 
             if (licensePlateNumber == null || licensePlateNumber.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -61,13 +126,17 @@ public class FineController {
                 ));
             }
 
-            List<Fine> fines = fineService.getFinesByLicensePlate(licensePlateNumber);
-            System.out.println("✅ Found " + fines.size() + " fines for " + licensePlateNumber);
+            List<FineSummary> fines = fineService.getFinesByLicensePlate(licensePlateNumber);
+            log.debug("Found {} fines for {}", fines.size(), licensePlateNumber);
 
+            if (fines.isEmpty()) {
+                // The plate may be an OCR misread; offer known plates that look alike
+                List<PlateMatchIndex.Candidate> candidates = fineService.findPlateCandidates(licensePlateNumber, 2, 5);
+                return ResponseEntity.ok(Map.of("success", true, "fines", fines, "candidates", candidates));
+            }
             return ResponseEntity.ok(Map.of("success", true, "fines", fines));
         } catch (Exception e) {
-            System.out.println("❌ Error checking fines: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking fines: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Error checking fines: " + e.getMessage()
@@ -75,14 +144,44 @@ public class FineController {
         }
     }
 
-    // For authorities to get all fines
+    // Ranked look-alike plates; distance counts a look-alike swap as 1 and any other edit as 2
+    @GetMapping("/candidates")
+    public ResponseEntity<?> getPlateCandidates(@RequestParam String licensePlateNumber,
+                                                @RequestParam(defaultValue = "2") int maxDistance,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        if (licensePlateNumber.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "License plate number is required"
+            ));
+        }
+        List<PlateMatchIndex.Candidate> candidates =
+                fineService.findPlateCandidates(licensePlateNumber, maxDistance, Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(Map.of("success", true, "candidates", candidates));
+    }
+
+    // For authorities to list fines, newest first. Pass nextCursor back as cursor to get the following page.
     @GetMapping
-    public ResponseEntity<?> getAllFines() {
+    public ResponseEntity<?> getAllFines(@RequestParam(required = false) FineStatus status,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Fine> fines = fineService.getAllFines();
-            return ResponseEntity.ok(Map.of("success", true, "fines", fines));
+            FinePage page = fineService.listFines(status, from, to, cursor, Math.max(1, Math.min(size, maxPageSize)));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("fines", page.getFines());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
         } catch (Exception e) {
-            System.out.println("❌ Error getting all fines: " + e.getMessage());
+            log.error("Error getting all fines: {}", e.getMessage());
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Error getting fines: " + e.getMessage()
@@ -90,25 +189,111 @@ public class FineController {
         }
     }
 
-    // For citizens to pay fines
+    // Full export for auditors. Written synchronously to the servlet output stream so long exports
+    // are not cut off by the async request timeout.
+    @GetMapping("/export")
+    public void exportFines(@RequestParam(defaultValue = "NDJSON") FineExportService.Format format,
+                            @RequestParam(required = false) FineStatus status,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                            HttpServletResponse response) throws IOException {
+        String extension = format == FineExportService.Format.CSV ? "csv" : "ndjson";
+        response.setContentType(format == FineExportService.Format.CSV ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"fines_export." + extension + "\"");
+        fineExportService.export(status, from, to, format, response.getOutputStream());
+    }
+
+    // Substring (or prefix=true) plate search, newest first and paged like the listing
+    @GetMapping("/search")
+    public ResponseEntity<?> searchFines(@RequestParam String q,
+                                         @RequestParam(defaultValue = "false") boolean prefix,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size) {
+        try {
+            FinePage page = fineService.searchFines(q, prefix, cursor, Math.max(1, Math.min(size, maxPageSize)));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("fines", page.getFines());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/check/cache/stats")
+    public ResponseEntity<?> getCheckCacheStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", fineService.getFineLookupCacheStats()));
+    }
+
+    // Live create/pay/status deltas plus updated counters for the authority dashboard
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamFineEvents() {
+        Flux<ServerSentEvent<Object>> events = fineEventBroadcaster.subscribe();
+        if (events == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+        }
+        return events;
+    }
+
+    @GetMapping("/events/stats")
+    public ResponseEntity<?> getFineEventStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", fineEventBroadcaster.getStats()));
+    }
+
+    @GetMapping("/overdue/stats")
+    public ResponseEntity<?> getOverdueSweepStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", overdueFineSweeper.getStats()));
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<?> getSearchIndexStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", fineService.getPlateSearchStats()));
+    }
+
+    // For citizens to pay fines. Send an Idempotency-Key header to make retries safe: a repeated key
+    // returns the first result (with Idempotent-Replayed: true) and changes nothing.
     @PostMapping("/pay/{fineId}")
-    public ResponseEntity<?> payFine(@PathVariable Long fineId, @RequestBody Map<String, String> request) {
+    public ResponseEntity<?> payFine(@PathVariable Long fineId, @RequestBody Map<String, String> request,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             String licensePlateNumber = request.get("licensePlateNumber");
-            System.out.println("💳 Paying fine " + fineId + " for " + licensePlateNumber);
+            log.info("Paying fine {} for {}", fineId, licensePlateNumber);
 
-            boolean success = fineService.payFine(fineId, licensePlateNumber);
-
-            if (success) {
-                return ResponseEntity.ok(Map.of("success", true, "message", "Fine paid successfully"));
-            } else {
+            if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "success", false,
-                        "message", "Fine not found or already paid"
+                        "message", "Idempotency-Key must be 1-100 characters"
                 ));
             }
+
+            PaymentResult result = fineService.payFine(fineId, licensePlateNumber, idempotencyKey);
+            ResponseEntity.BodyBuilder response = result.isPaid() ? ResponseEntity.ok() : ResponseEntity.badRequest();
+            if (result.isReplayed()) {
+                response.header("Idempotent-Replayed", "true");
+            }
+
+            switch (result.getOutcome()) {
+                case PAID:
+                    return response.body(Map.of("success", true, "message", "Fine paid successfully"));
+                case ALREADY_PAID:
+                    return response.body(Map.of("success", false, "message", "Fine is already paid"));
+                case NOT_PAYABLE:
+                    return response.body(Map.of("success", false, "message", "Fine can no longer be paid"));
+                default:
+                    return response.body(Map.of("success", false, "message", "Fine not found"));
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
         } catch (Exception e) {
-            System.out.println("❌ Error paying fine: " + e.getMessage());
+            log.error("Error paying fine: {}", e.getMessage());
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Error paying fine: " + e.getMessage()
@@ -128,7 +313,7 @@ public class FineController {
 
             return ResponseEntity.ok(Map.of("success", true, "fine", updatedFine));
         } catch (Exception e) {
-            System.out.println("❌ Error updating fine status: " + e.getMessage());
+            log.error("Error updating fine status: {}", e.getMessage());
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Error updating fine status: " + e.getMessage()
@@ -136,23 +321,14 @@ public class FineController {
         }
     }
 
-    // Get fine statistics
+    // Get fine statistics: totals, outstanding amount, and breakdowns by status, violation type and issuer
     @GetMapping("/stats")
     public ResponseEntity<?> getFineStats() {
         try {
-            List<Fine> allFines = fineService.getAllFines();
-            long totalFines = allFines.size();
-            long unpaidFines = allFines.stream().filter(fine -> fine.getStatus() == FineStatus.UNPAID).count();
-            long paidFines = allFines.stream().filter(fine -> fine.getStatus() == FineStatus.PAID).count();
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalFines", totalFines);
-            stats.put("unpaidFines", unpaidFines);
-            stats.put("paidFines", paidFines);
-
-            return ResponseEntity.ok(Map.of("success", true, "stats", stats));
+            // Served from in-memory counters; see FineStatistics
+            return ResponseEntity.ok(Map.of("success", true, "stats", fineService.getFineStatistics()));
         } catch (Exception e) {
-            System.out.println("❌ Error getting fine stats: " + e.getMessage());
+            log.error("Error getting fine stats: {}", e.getMessage());
             return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Error getting statistics: " + e.getMessage()
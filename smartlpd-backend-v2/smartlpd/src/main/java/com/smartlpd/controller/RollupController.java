@@ -0,0 +1,54 @@
+package com.smartlpd.controller;
+
+import com.smartlpd.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rollups")
+@CrossOrigin(origins = "*")
+public class RollupController {
+
+    @Autowired
+    private RollupService rollupService;
+
+    // Daily fines issued and revenue collected, optionally split by violationType or issuer
+    @GetMapping("/fines")
+    public ResponseEntity<?> getFineRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "NONE") RollupService.GroupBy groupBy) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "'to' must not be before 'from'"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "rollups", rollupService.queryFines(from, to, groupBy)));
+    }
+
+    // Detection volume per hour (or per day with daily=true) in [from, to)
+    @GetMapping("/detections")
+    public ResponseEntity<?> getDetectionRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                 @RequestParam(defaultValue = "false") boolean daily) {
+        if (!to.isAfter(from)) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "'to' must be after 'from'"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "rollups", rollupService.queryDetections(from, to, daily)));
+    }
+
+    // Rebuild every bucket from the source tables (e.g. after a bulk import or manual SQL changes)
+    @PostMapping("/backfill")
+    public ResponseEntity<?> backfill() {
+        rollupService.backfill();
+        return ResponseEntity.ok(Map.of("success", true, "stats", rollupService.getStats()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(Map.of("success", true, "stats", rollupService.getStats()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartlpd.dto;
+
+import java.util.List;
+
+public class BatchDetectionRequest {
+    private List<String> images; // Base64 encoded images
+
+    public List<String> getImages() { return images; }
+    public void setImages(List<String> images) { this.images = images; }
+}
@@ -0,0 +1,10 @@
+package com.smartlpd.dto;
+
+import java.util.List;
+
+public class BulkFineRequest {
+    private List<FineRequest> fines;
+
+    public List<FineRequest> getFines() { return fines; }
+    public void setFines(List<FineRequest> fines) { this.fines = fines; }
+}
@@ -0,0 +1,29 @@
+package com.smartlpd.dto;
+
+// Outcome of one row of a bulk issuance, in request order
+public class BulkFineResult {
+    private final int index;
+    private final boolean success;
+    private final Long fineId;
+    private final String message;
+
+    private BulkFineResult(int index, boolean success, Long fineId, String message) {
+        this.index = index;
+        this.success = success;
+        this.fineId = fineId;
+        this.message = message;
+    }
+
+    public static BulkFineResult created(int index, Long fineId) {
+        return new BulkFineResult(index, true, fineId, null);
+    }
+
+    public static BulkFineResult failed(int index, String message) {
+        return new BulkFineResult(index, false, null, message);
+    }
+
+    public int getIndex() { return index; }
+    public boolean isSuccess() { return success; }
+    public Long getFineId() { return fineId; }
+    public String getMessage() { return message; }
+}
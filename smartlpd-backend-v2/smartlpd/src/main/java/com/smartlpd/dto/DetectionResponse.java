@@ -5,6 +5,8 @@ public class DetectionResponse {
     private double confidence;
     private boolean success;
     private String message;
+    private boolean watchlistHit;
+    private int unpaidFineCount;
 
     // Getters and setters
     public String getLicensePlateNumber() { return licensePlateNumber; }
@@ -18,4 +20,10 @@ public class DetectionResponse {
 
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
-}
\ No newline at end of file
+
+    public boolean isWatchlistHit() { return watchlistHit; }
+    public void setWatchlistHit(boolean watchlistHit) { this.watchlistHit = watchlistHit; }
+
+    public int getUnpaidFineCount() { return unpaidFineCount; }
+    public void setUnpaidFineCount(int unpaidFineCount) { this.unpaidFineCount = unpaidFineCount; }
+}
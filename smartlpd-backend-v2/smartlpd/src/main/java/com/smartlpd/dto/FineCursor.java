@@ -0,0 +1,39 @@
+package com.smartlpd.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in the (violationDate DESC, id DESC) fine listing, passed to clients as an opaque token
+public class FineCursor {
+    private final LocalDateTime violationDate;
+    private final Long id;
+
+    public FineCursor(LocalDateTime violationDate, Long id) {
+        this.violationDate = violationDate;
+        this.id = id;
+    }
+
+    public static FineCursor after(FineSummary fine) {
+        return new FineCursor(fine.getViolationDate(), fine.getId());
+    }
+
+    public String encode() {
+        String raw = violationDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FineCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new FineCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getViolationDate() { return violationDate; }
+    public Long getId() { return id; }
+}
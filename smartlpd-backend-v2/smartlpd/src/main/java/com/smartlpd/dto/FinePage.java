@@ -0,0 +1,16 @@
+package com.smartlpd.dto;
+
+import java.util.List;
+
+public class FinePage {
+    private final List<FineSummary> fines;
+    private final String nextCursor; // null on the last page
+
+    public FinePage(List<FineSummary> fines, String nextCursor) {
+        this.fines = fines;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FineSummary> getFines() { return fines; }
+    public String getNextCursor() { return nextCursor; }
+}
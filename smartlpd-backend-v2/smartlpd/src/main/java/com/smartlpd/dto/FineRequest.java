@@ -0,0 +1,30 @@
+package com.smartlpd.dto;
+
+import java.time.LocalDateTime;
+
+public class FineRequest {
+    private String licensePlateNumber;
+    private Double amount;
+    private String violationType;
+    private String description;
+    private LocalDateTime violationDate; // defaults to now
+
+    // Default constructor
+    public FineRequest() {}
+
+    // Getters and setters
+    public String getLicensePlateNumber() { return licensePlateNumber; }
+    public void setLicensePlateNumber(String licensePlateNumber) { this.licensePlateNumber = licensePlateNumber; }
+
+    public Double getAmount() { return amount; }
+    public void setAmount(Double amount) { this.amount = amount; }
+
+    public String getViolationType() { return violationType; }
+    public void setViolationType(String violationType) { this.violationType = violationType; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public LocalDateTime getViolationDate() { return violationDate; }
+    public void setViolationDate(LocalDateTime violationDate) { this.violationDate = violationDate; }
+}
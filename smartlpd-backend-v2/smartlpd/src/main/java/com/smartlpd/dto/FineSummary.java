@@ -0,0 +1,45 @@
+package com.smartlpd.dto;
+
+import com.smartlpd.model.FineStatus;
+
+import java.time.LocalDateTime;
+
+// Read-only projection of a fine for listings; built directly by JPQL, never a managed entity
+public class FineSummary {
+    private final Long id;
+    private final String licensePlateNumber;
+    private final Double amount;
+    private final String violationType;
+    private final String description;
+    private final LocalDateTime violationDate;
+    private final LocalDateTime dueDate;
+    private final FineStatus status;
+    private final String issuedByUsername;
+    private final boolean overdue;
+
+    public FineSummary(Long id, String licensePlateNumber, Double amount, String violationType, String description,
+                       LocalDateTime violationDate, LocalDateTime dueDate, FineStatus status, String issuedByUsername,
+                       boolean overdue) {
+        this.id = id;
+        this.licensePlateNumber = licensePlateNumber;
+        this.amount = amount;
+        this.violationType = violationType;
+        this.description = description;
+        this.violationDate = violationDate;
+        this.dueDate = dueDate;
+        this.status = status;
+        this.issuedByUsername = issuedByUsername;
+        this.overdue = overdue;
+    }
+
+    public Long getId() { return id; }
+    public String getLicensePlateNumber() { return licensePlateNumber; }
+    public Double getAmount() { return amount; }
+    public String getViolationType() { return violationType; }
+    public String getDescription() { return description; }
+    public LocalDateTime getViolationDate() { return violationDate; }
+    public LocalDateTime getDueDate() { return dueDate; }
+    public FineStatus getStatus() { return status; }
+    public String getIssuedByUsername() { return issuedByUsername; }
+    public boolean isOverdue() { return overdue; }
+}
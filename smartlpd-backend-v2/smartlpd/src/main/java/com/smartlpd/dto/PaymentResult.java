@@ -0,0 +1,17 @@
+package com.smartlpd.dto;
+
+import com.smartlpd.model.PaymentOutcome;
+
+public class PaymentResult {
+    private final PaymentOutcome outcome;
+    private final boolean replayed; // true when served from a stored Idempotency-Key
+
+    public PaymentResult(PaymentOutcome outcome, boolean replayed) {
+        this.outcome = outcome;
+        this.replayed = replayed;
+    }
+
+    public PaymentOutcome getOutcome() { return outcome; }
+    public boolean isReplayed() { return replayed; }
+    public boolean isPaid() { return outcome == PaymentOutcome.PAID; }
+}
@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "detection_history")
 public class DetectionHistory {
+    // Pooled sequence ids (a sequence table on MySQL) so inserts can be JDBC-batched; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detection_history_seq")
+    @SequenceGenerator(name = "detection_history_seq", sequenceName = "detection_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "license_plate_number", length = 20)
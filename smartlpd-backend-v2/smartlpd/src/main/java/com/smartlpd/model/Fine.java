@@ -5,10 +5,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fines")
+@Table(name = "fines", indexes = {
+        // Keyset pagination on (violation_date, id), with and without the status filter
+        @Index(name = "idx_fines_violation_date_id", columnList = "violation_date, id"),
+        @Index(name = "idx_fines_status_violation_date_id", columnList = "status, violation_date, id"),
+        // Overdue sweep: newly due, not yet flagged UNPAID fines
+        @Index(name = "idx_fines_status_overdue_due_date", columnList = "status, overdue, due_date")
+})
 public class Fine {
+    // Pooled sequence ids (a sequence table on MySQL) so bulk issuance can JDBC-batch its inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fines_seq")
+    @SequenceGenerator(name = "fines_seq", sequenceName = "fines_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "license_plate_number", nullable = false, length = 20)
@@ -41,6 +49,10 @@ public class Fine {
     @Column(name = "issued_by_username", length = 100)
     private String issuedByUsername;
 
+    // Set by OverdueFineSweeper once an UNPAID fine passes its due date
+    @Column(nullable = false)
+    private boolean overdue;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -98,9 +110,18 @@ public class Fine {
         }
     }
 
+    // For an issuer reference that is not loaded (getReferenceById): the name comes from the caller
+    public void setIssuedBy(User issuedBy, String issuedByUsername) {
+        this.issuedBy = issuedBy;
+        this.issuedByUsername = issuedByUsername;
+    }
+
     public String getIssuedByUsername() { return issuedByUsername; }
     public void setIssuedByUsername(String issuedByUsername) { this.issuedByUsername = issuedByUsername; }
 
+    public boolean isOverdue() { return overdue; }
+    public void setOverdue(boolean overdue) { this.overdue = overdue; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,53 @@
+package com.smartlpd.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// First result recorded for a client-supplied Idempotency-Key; retries with the same key replay it
+@Entity
+@Table(name = "payment_idempotency_keys")
+public class PaymentIdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "fine_id", nullable = false)
+    private Long fineId;
+
+    @Column(name = "license_plate_number", nullable = false, length = 20)
+    private String licensePlateNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentOutcome outcome;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PaymentIdempotencyKey() {}
+
+    public PaymentIdempotencyKey(String idempotencyKey, Long fineId, String licensePlateNumber, PaymentOutcome outcome) {
+        this.idempotencyKey = idempotencyKey;
+        this.fineId = fineId;
+        this.licensePlateNumber = licensePlateNumber;
+        this.outcome = outcome;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public Long getFineId() { return fineId; }
+    public void setFineId(Long fineId) { this.fineId = fineId; }
+
+    public String getLicensePlateNumber() { return licensePlateNumber; }
+    public void setLicensePlateNumber(String licensePlateNumber) { this.licensePlateNumber = licensePlateNumber; }
+
+    public PaymentOutcome getOutcome() { return outcome; }
+    public void setOutcome(PaymentOutcome outcome) { this.outcome = outcome; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
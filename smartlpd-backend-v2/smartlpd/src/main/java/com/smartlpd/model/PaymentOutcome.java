@@ -0,0 +1,8 @@
+package com.smartlpd.model;
+
+public enum PaymentOutcome {
+    PAID,
+    ALREADY_PAID,
+    NOT_PAYABLE,
+    NOT_FOUND
+}
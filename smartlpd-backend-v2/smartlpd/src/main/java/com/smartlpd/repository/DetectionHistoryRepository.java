@@ -3,11 +3,23 @@ package com.smartlpd.repository;
 import com.smartlpd.model.DetectionHistory;
 import com.smartlpd.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DetectionHistoryRepository extends JpaRepository<DetectionHistory, Long> {
     List<DetectionHistory> findByUserOrderByDetectionTimeDesc(User user);
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT d.licensePlateNumber FROM DetectionHistory d WHERE d.licensePlateNumber IS NOT NULL")
+    List<String> findDistinctLicensePlateNumbers();
+
+    // Rollup backfill: [day, hour, count]
+    @Query("SELECT cast(d.detectionTime as LocalDate), extract(hour from d.detectionTime), COUNT(d) "
+            + "FROM DetectionHistory d WHERE d.detectionTime >= :since "
+            + "GROUP BY cast(d.detectionTime as LocalDate), extract(hour from d.detectionTime)")
+    List<Object[]> rollupByHour(@Param("since") LocalDateTime since);
+}
@@ -1,26 +1,83 @@
 package com.smartlpd.repository;
 
+import com.smartlpd.dto.FineSummary;
 import com.smartlpd.model.Fine;
 import com.smartlpd.model.FineStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FineRepository extends JpaRepository<Fine, Long> {
+public interface FineRepository extends JpaRepository<Fine, Long>, FineRepositoryCustom {
     List<Fine> findByLicensePlateNumberOrderByViolationDateDesc(String licensePlateNumber);
     List<Fine> findByLicensePlateNumberAndStatusOrderByViolationDateDesc(String licensePlateNumber, FineStatus status);
     List<Fine> findByStatusOrderByViolationDateDesc(FineStatus status);
     Optional<Fine> findByIdAndLicensePlateNumber(Long id, String licensePlateNumber);
 
-    // Search fines by license plate (partial match)
-    @Query("SELECT f FROM Fine f WHERE LOWER(f.licensePlateNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY f.violationDate DESC")
-    List<Fine> findByLicensePlateNumberContainingIgnoreCaseOrderByViolationDateDesc(@Param("searchTerm") String searchTerm);
+    @Query("SELECT new com.smartlpd.dto.FineSummary(f.id, f.licensePlateNumber, f.amount, f.violationType, "
+            + "f.description, f.violationDate, f.dueDate, f.status, f.issuedByUsername, f.overdue) FROM Fine f WHERE f.id IN :ids")
+    List<FineSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.smartlpd.dto.FineSummary(f.id, f.licensePlateNumber, f.amount, f.violationType, "
+            + "f.description, f.violationDate, f.dueDate, f.status, f.issuedByUsername, f.overdue) FROM Fine f "
+            + "WHERE f.licensePlateNumber = :licensePlateNumber ORDER BY f.violationDate DESC, f.id DESC")
+    List<FineSummary> findSummariesByLicensePlateNumber(@Param("licensePlateNumber") String licensePlateNumber);
 
     // Count fines by status
     long countByStatus(FineStatus status);
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT f.licensePlateNumber FROM Fine f")
+    List<String> findDistinctLicensePlateNumbers();
+
+    // [status, violationType, issuedByUsername, count, sum(amount)] rows for the in-memory statistics
+    @Query("SELECT f.status, f.violationType, f.issuedByUsername, COUNT(f), SUM(f.amount) FROM Fine f "
+            + "GROUP BY f.status, f.violationType, f.issuedByUsername")
+    List<Object[]> aggregateByStatusTypeAndIssuer();
+
+    // Next chunk of UNPAID fines that are past due and not flagged yet, as [id, licensePlateNumber] rows in
+    // due-date order. Flagged rows leave the overdue = false slice of idx_fines_status_overdue_due_date, so the
+    // scan stays small without a lower bound on due_date.
+    @Query("SELECT f.id, f.licensePlateNumber FROM Fine f WHERE f.status = :status AND f.overdue = false "
+            + "AND f.dueDate <= :until ORDER BY f.dueDate, f.id")
+    List<Object[]> findNewlyOverdue(@Param("status") FineStatus status, @Param("until") LocalDateTime until,
+                                    Pageable pageable);
+
+    // Set-based flag (plus optional late fee); the guards make a concurrent payment win over the sweep
+    @Modifying
+    @Query("UPDATE Fine f SET f.overdue = true, f.amount = f.amount + cast(:lateFee as Double), f.updatedAt = :now "
+            + "WHERE f.id IN :ids AND f.status = :status AND f.overdue = false")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("status") FineStatus status,
+                    @Param("lateFee") double lateFee, @Param("now") LocalDateTime now);
+
+    // Conditional state transition: only an UNPAID fine for this plate is paid, so exactly one concurrent caller gets 1
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Fine f SET f.status = com.smartlpd.model.FineStatus.PAID, f.updatedAt = :now "
+            + "WHERE f.id = :id AND f.licensePlateNumber = :licensePlateNumber "
+            + "AND f.status = com.smartlpd.model.FineStatus.UNPAID")
+    int markPaid(@Param("id") Long id, @Param("licensePlateNumber") String licensePlateNumber,
+                 @Param("now") LocalDateTime now);
+
+    // Rollup backfill: [day, violationType, issuedByUsername, count, sum(amount)] by violation day
+    @Query("SELECT cast(f.violationDate as LocalDate), f.violationType, f.issuedByUsername, COUNT(f), SUM(f.amount) "
+            + "FROM Fine f WHERE f.violationDate >= :since "
+            + "GROUP BY cast(f.violationDate as LocalDate), f.violationType, f.issuedByUsername")
+    List<Object[]> rollupIssuedByDay(@Param("since") LocalDateTime since);
+
+    // Same shape for fines in one status, by the day they last changed (the payment day for PAID)
+    @Query("SELECT cast(f.updatedAt as LocalDate), f.violationType, f.issuedByUsername, COUNT(f), SUM(f.amount) "
+            + "FROM Fine f WHERE f.status = :status AND f.updatedAt >= :since "
+            + "GROUP BY cast(f.updatedAt as LocalDate), f.violationType, f.issuedByUsername")
+    List<Object[]> rollupPaidByDay(@Param("status") FineStatus status, @Param("since") LocalDateTime since);
+
+    // Per-plate fine counts for one status, as [licensePlateNumber, count] rows
+    @Query("SELECT f.licensePlateNumber, COUNT(f) FROM Fine f WHERE f.status = :status GROUP BY f.licensePlateNumber")
+    List<Object[]> countByLicensePlateNumberForStatus(@Param("status") FineStatus status);
+}
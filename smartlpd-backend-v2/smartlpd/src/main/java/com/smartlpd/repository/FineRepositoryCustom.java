@@ -0,0 +1,23 @@
+package com.smartlpd.repository;
+
+import com.smartlpd.dto.FineCursor;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.model.FineStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface FineRepositoryCustom {
+
+    // One keyset page, newest first. Null filters are ignored; a null cursor starts from the top.
+    List<FineSummary> findSummaries(FineStatus status, LocalDateTime from, LocalDateTime to,
+                                    FineCursor after, int limit);
+
+    // Every matching fine, newest first, read through a forward-only streaming cursor. Must be
+    // consumed (and closed) inside a transaction.
+    Stream<FineSummary> streamSummaries(FineStatus status, LocalDateTime from, LocalDateTime to);
+
+    // [id, licensePlateNumber, violationDate] for every fine, streamed the same way
+    Stream<Object[]> streamPlateIndexRows();
+}
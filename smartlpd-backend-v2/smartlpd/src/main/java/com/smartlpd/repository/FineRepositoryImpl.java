@@ -0,0 +1,84 @@
+package com.smartlpd.repository;
+
+import com.smartlpd.dto.FineCursor;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.model.FineStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class FineRepositoryImpl implements FineRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the
+    // result set; other drivers need a positive value
+    @Value("${fines.stream.fetch-size:-2147483648}")
+    private int streamFetchSize;
+
+    @Override
+    public List<FineSummary> findSummaries(FineStatus status, LocalDateTime from, LocalDateTime to,
+                                           FineCursor after, int limit) {
+        return summaryQuery(status, from, to, after).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<FineSummary> streamSummaries(FineStatus status, LocalDateTime from, LocalDateTime to) {
+        // Constructor projections are not managed, so the persistence context stays empty as well
+        return summaryQuery(status, from, to, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamPlateIndexRows() {
+        return entityManager.createQuery("SELECT f.id, f.licensePlateNumber, f.violationDate FROM Fine f", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<FineSummary> summaryQuery(FineStatus status, LocalDateTime from, LocalDateTime to, FineCursor after) {
+        // Only the filters in use go into the query, so each shape can use the matching composite index
+        StringBuilder jpql = new StringBuilder("SELECT new com.smartlpd.dto.FineSummary(f.id, f.licensePlateNumber, "
+                + "f.amount, f.violationType, f.description, f.violationDate, f.dueDate, f.status, f.issuedByUsername, f.overdue) "
+                + "FROM Fine f WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND f.status = :status");
+        }
+        if (from != null) {
+            jpql.append(" AND f.violationDate >= :from");
+        }
+        if (to != null) {
+            jpql.append(" AND f.violationDate < :to");
+        }
+        if (after != null) {
+            jpql.append(" AND (f.violationDate < :cursorDate OR (f.violationDate = :cursorDate AND f.id < :cursorId))");
+        }
+        jpql.append(" ORDER BY f.violationDate DESC, f.id DESC");
+
+        TypedQuery<FineSummary> query = entityManager.createQuery(jpql.toString(), FineSummary.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (after != null) {
+            query.setParameter("cursorDate", after.getViolationDate());
+            query.setParameter("cursorId", after.getId());
+        }
+        return query;
+    }
+}
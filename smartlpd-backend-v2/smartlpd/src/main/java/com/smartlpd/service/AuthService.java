@@ -7,10 +7,12 @@ import com.smartlpd.model.User;
 import com.smartlpd.model.UserRole;
 import com.smartlpd.repository.UserRepository;
 import com.smartlpd.util.JwtUtil;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -20,7 +22,10 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserCache userCache;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -30,16 +35,6 @@ public class AuthService {
     }
 
     public AuthResponse register(RegisterRequest request) {
-        // Check if username exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            return new AuthResponse(null, "Username already exists", false, null, null);
-        }
-
-        // Check if email exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            return new AuthResponse(null, "Email already exists", false, null, null);
-        }
-
         // Validate authority email domain
         if (request.getRole() == UserRole.AUTHORITY && !isValidAuthorityEmail(request.getEmail())) {
             return new AuthResponse(null, "Government authorities must use @gov.ac.in email addresses", false, null, null);
@@ -52,12 +47,31 @@ public class AuthService {
         User user = new User(
                 request.getUsername(),
                 request.getEmail(),
-                passwordEncoder.encode(request.getPassword()),
+                passwordHashingExecutor.encode(request.getPassword()),
                 request.getFullName(),
                 role
         );
 
-        userRepository.save(user);
+        // Taken usernames and emails are caught by the unique constraints on insert,
+        // instead of two exists queries before it
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String message;
+            if (violates(e, "username")) {
+                message = "Username already exists";
+            } else if (violates(e, "email")) {
+                message = "Email already exists";
+            } else if (userRepository.existsByUsername(request.getUsername())) {
+                // Constraint names Hibernate generated for older schemas say nothing; ask the table
+                message = "Username already exists";
+            } else if (userRepository.existsByEmail(request.getEmail())) {
+                message = "Email already exists";
+            } else {
+                throw e;
+            }
+            return new AuthResponse(null, message, false, null, null);
+        }
 
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
@@ -65,23 +79,32 @@ public class AuthService {
         return new AuthResponse(token, "User registered successfully", true, user.getUsername(), user.getRole().name());
     }
 
-    public AuthResponse login(LoginRequest request) {
-        // Try to find user by username first
-        Optional<User> userOptional = userRepository.findByUsername(request.getUsername());
-
-        // If not found by username, try by email
-        if (userOptional.isEmpty()) {
-            userOptional = userRepository.findByEmail(request.getUsername());
+    // uk_users_username / uk_users_email, or MySQL's default index names on older schemas
+    private static boolean violates(DataIntegrityViolationException e, String column) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ConstraintViolationException) {
+            String constraint = ((ConstraintViolationException) cause).getConstraintName();
+            if (constraint == null) {
+                return false;
+            }
+            String name = constraint.toLowerCase(Locale.ROOT);
+            return name.contains("uk_users_" + column) || name.equals(column) || name.endsWith("." + column);
         }
+        return false;
+    }
+
+    public AuthResponse login(LoginRequest request) {
+        // Username or email in one query, served from the user cache when warm
+        Optional<UserCache.CachedUser> userOptional = userCache.findByUsernameOrEmail(request.getUsername());
 
         if (userOptional.isEmpty()) {
             return new AuthResponse(null, "Invalid username/email or password", false, null, null);
         }
 
-        User user = userOptional.get();
+        UserCache.CachedUser user = userOptional.get();
 
-        // Check password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // Check password (BCrypt runs on the bounded hashing pool)
+        if (!passwordHashingExecutor.matches(request.getPassword(), user.getPasswordHash())) {
             return new AuthResponse(null, "Invalid username/email or password", false, null, null);
         }
 
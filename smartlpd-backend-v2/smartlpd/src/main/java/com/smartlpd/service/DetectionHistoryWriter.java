@@ -0,0 +1,165 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.DetectionHistory;
+import com.smartlpd.repository.DetectionHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind persistence for detection history. Detections are queued in memory and a single
+// background thread inserts them in JDBC batches, so the detect path never waits on MySQL.
+@Component
+public class DetectionHistoryWriter {
+
+    public enum OverflowPolicy { DROP_NEWEST, DROP_OLDEST }
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionHistoryWriter.class);
+
+    private final DetectionHistoryRepository detectionHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<DetectionHistory> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public DetectionHistoryWriter(DetectionHistoryRepository detectionHistoryRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${detection.history.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${detection.history.batch-size:50}") int batchSize,
+                                  @Value("${detection.history.flush-interval-ms:1000}") long flushIntervalMs,
+                                  @Value("${detection.history.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+                                  @Value("${detection.history.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy) {
+        this.detectionHistoryRepository = detectionHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::run, "detection-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Never blocks: when the queue is full the overflow policy decides which detection is lost
+    public void record(DetectionHistory detection) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        if (queue.offer(detection)) {
+            enqueued.increment();
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            // Make room by discarding the oldest queued detection
+            while (!queue.offer(detection)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("written", written.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Stop accepting, then let the writer drain what is already queued. No interrupt: it could
+        // abort a batch that is halfway through acquiring a connection.
+        running = false;
+        writerThread.join(shutdownTimeoutMs);
+        if (!queue.isEmpty()) {
+            log.warn("Detection history writer stopped with {} unsaved detections", queue.size());
+        }
+    }
+
+    private void run() {
+        List<DetectionHistory> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                DetectionHistory first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Fill the batch until it is full or the flush interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    DetectionHistory next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+
+        // Graceful drain on shutdown
+        queue.drainTo(batch);
+        while (!batch.isEmpty()) {
+            int end = Math.min(batchSize, batch.size());
+            List<DetectionHistory> chunk = new ArrayList<>(batch.subList(0, end));
+            batch.subList(0, end).clear();
+            flush(chunk);
+        }
+    }
+
+    private void flush(List<DetectionHistory> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> detectionHistoryRepository.saveAll(batch));
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("Failed to write {} detections: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.smartlpd.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// ML results keyed by the SHA-256 of the submitted image. Memory tier is bounded by size and TTL;
+// the optional disk tier (detection.cache.disk-dir) keeps results across restarts for the same TTL
+// and is bounded by its own entry count: a scheduled sweep deletes expired files, and exceeding the
+// limit evicts the oldest files.
+@Component
+public class DetectionResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionResultCache.class);
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+    private static final int HASH_CHUNK_SIZE = 8192;
+    // Only names this cache writes: "<sha-256 hex>.json" entries and the "<key><random>.tmp" files
+    // Files.createTempFile leaves behind if a write dies. Anything else in the directory is left alone.
+    private static final Pattern ENTRY_NAME = Pattern.compile("[0-9a-f]{64}\\.json");
+    private static final Pattern TEMP_NAME = Pattern.compile("[0-9a-f]{64}[0-9]*\\.tmp");
+
+    private final Cache<String, Map<String, Object>> memory;
+    private final Duration ttl;
+    private final Path diskDirectory;
+    private final long diskMaxEntries;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder diskEvictions = new LongAdder();
+    private final AtomicLong diskEntries = new AtomicLong();
+
+    private record DiskEntry(Path file, long modifiedMillis) {}
+
+    public DetectionResultCache(@Value("${detection.cache.max-entries:10000}") long maxEntries,
+                                @Value("${detection.cache.ttl-seconds:600}") long ttlSeconds,
+                                @Value("${detection.cache.disk-dir:}") String diskDir,
+                                @Value("${detection.cache.disk-max-entries:10000}") long diskMaxEntries) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.diskDirectory = diskDir.isBlank() ? null : Paths.get(diskDir);
+        this.diskMaxEntries = diskMaxEntries;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (diskDirectory == null) {
+            return;
+        }
+        Files.createDirectories(diskDirectory);
+        // Drop entries that expired while the service was down
+        sweepDisk();
+    }
+
+    // Deletes expired files (and temp files left by a crash), then the oldest files beyond the limit.
+    // Trims to 90% of the limit so a full directory is not re-listed on every new write.
+    @Scheduled(fixedDelayString = "${detection.cache.disk-sweep-interval-ms:60000}")
+    public synchronized void sweepDisk() {
+        if (diskDirectory == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<DiskEntry> live = new ArrayList<>();
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                boolean entry = ENTRY_NAME.matcher(name).matches();
+                if (!entry && !TEMP_NAME.matcher(name).matches()) {
+                    return;
+                }
+                long modified = lastModifiedMillis(file);
+                if (now - modified > ttl.toMillis()) {
+                    deleteQuietly(file);
+                } else if (entry) {
+                    live.add(new DiskEntry(file, modified));
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not sweep detection cache directory {}: {}", diskDirectory, e.getMessage());
+            return;
+        }
+
+        long remaining = live.size();
+        if (remaining > diskMaxEntries) {
+            long target = diskMaxEntries * 9 / 10;
+            live.sort(Comparator.comparingLong(DiskEntry::modifiedMillis));
+            for (DiskEntry entry : live) {
+                if (remaining <= target) {
+                    break;
+                }
+                deleteQuietly(entry.file());
+                diskEvictions.increment();
+                remaining--;
+            }
+        }
+        diskEntries.set(remaining);
+    }
+
+    // Hashes the base64 text in chunks so a multi-megabyte image is not copied into one big byte[]
+    public String keyFor(String imageData) {
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[HASH_CHUNK_SIZE];
+        int length = imageData.length();
+        for (int offset = 0; offset < length; offset += HASH_CHUNK_SIZE) {
+            int end = Math.min(offset + HASH_CHUNK_SIZE, length);
+            for (int i = offset; i < end; i++) {
+                chunk[i - offset] = (byte) imageData.charAt(i); // base64 is pure ASCII
+            }
+            digest.update(chunk, 0, end - offset);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Mono<Map<String, Object>> get(String key) {
+        Map<String, Object> cached = memory.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (diskDirectory == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> readFromDisk(key))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public void put(String key, Map<String, Object> result) {
+        memory.put(key, result);
+        if (diskDirectory != null) {
+            Schedulers.boundedElastic().schedule(() -> writeToDisk(key, result));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = memory.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", memory.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("diskHits", diskHits.sum());
+        result.put("diskEnabled", diskDirectory != null);
+        result.put("diskEntries", diskEntries.get());
+        result.put("diskEvictions", diskEvictions.sum());
+        return result;
+    }
+
+    private Map<String, Object> readFromDisk(String key) {
+        Path file = diskDirectory.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        if (isExpired(file)) {
+            if (deleteQuietly(file)) {
+                diskEntries.decrementAndGet();
+            }
+            return null;
+        }
+        try {
+            Map<String, Object> result = objectMapper.readValue(file.toFile(), RESULT_TYPE);
+            diskHits.increment();
+            memory.put(key, result);
+            return result;
+        } catch (IOException e) {
+            log.warn("Discarding unreadable cached detection {}: {}", file, e.getMessage());
+            if (deleteQuietly(file)) {
+                diskEntries.decrementAndGet();
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Map<String, Object> result) {
+        Path target = diskDirectory.resolve(key + ".json");
+        try {
+            // Write then rename so a crash never leaves a half-written entry behind
+            Path temp = Files.createTempFile(diskDirectory, key, ".tmp");
+            objectMapper.writeValue(temp.toFile(), result);
+            boolean replacing = Files.exists(target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            if (!replacing && diskEntries.incrementAndGet() > diskMaxEntries) {
+                sweepDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Could not persist cached detection {}: {}", target, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Path file) {
+        try {
+            long ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            return ageMillis > ttl.toMillis();
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    // A file that vanished reads as oldest, so the sweep treats it as expired
+    private long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", file, e);
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
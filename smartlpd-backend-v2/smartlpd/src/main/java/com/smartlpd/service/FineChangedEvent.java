@@ -0,0 +1,64 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.Fine;
+import com.smartlpd.model.FineStatus;
+
+import java.time.LocalDateTime;
+
+// Published by FineService for every fine mutation; in-memory indexes and counters listen
+// for it after the transaction commits.
+public class FineChangedEvent {
+
+    public enum Type { CREATED, STATUS_CHANGED }
+
+    private final Type type;
+    private final Long fineId;
+    private final String licensePlateNumber;
+    private final Double amount;
+    private final String violationType;
+    private final String issuedByUsername;
+    private final LocalDateTime violationDate;
+    private final FineStatus previousStatus;
+    private final FineStatus status;
+    private final LocalDateTime occurredAt;
+    // Part of a bulk issuance; dashboards get one summary for the request instead of one push per row
+    private final boolean bulk;
+
+    private FineChangedEvent(Type type, Fine fine, FineStatus previousStatus, boolean bulk) {
+        this.type = type;
+        this.fineId = fine.getId();
+        this.licensePlateNumber = fine.getLicensePlateNumber();
+        this.amount = fine.getAmount();
+        this.violationType = fine.getViolationType();
+        this.issuedByUsername = fine.getIssuedByUsername();
+        this.violationDate = fine.getViolationDate();
+        this.previousStatus = previousStatus;
+        this.status = fine.getStatus();
+        this.occurredAt = LocalDateTime.now();
+        this.bulk = bulk;
+    }
+
+    public static FineChangedEvent created(Fine fine) {
+        return new FineChangedEvent(Type.CREATED, fine, null, false);
+    }
+
+    public static FineChangedEvent createdInBulk(Fine fine) {
+        return new FineChangedEvent(Type.CREATED, fine, null, true);
+    }
+
+    public static FineChangedEvent statusChanged(Fine fine, FineStatus previousStatus) {
+        return new FineChangedEvent(Type.STATUS_CHANGED, fine, previousStatus, false);
+    }
+
+    public Type getType() { return type; }
+    public Long getFineId() { return fineId; }
+    public String getLicensePlateNumber() { return licensePlateNumber; }
+    public Double getAmount() { return amount; }
+    public String getViolationType() { return violationType; }
+    public String getIssuedByUsername() { return issuedByUsername; }
+    public LocalDateTime getViolationDate() { return violationDate; }
+    public FineStatus getPreviousStatus() { return previousStatus; }
+    public FineStatus getStatus() { return status; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public boolean isBulk() { return bulk; }
+}
@@ -0,0 +1,139 @@
+package com.smartlpd.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pushes committed fine changes, with the updated counters, to dashboard SSE subscribers. One
+// multicast sink fans out without blocking the publisher; each subscriber gets its own bounded
+// buffer and is disconnected when it overflows, so a slow client never holds up the others.
+@Component
+public class FineEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(FineEventBroadcaster.class);
+
+    @Autowired
+    private FineStatistics fineStatistics;
+
+    private final Sinks.Many<Map<String, Object>> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration heartbeatInterval;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public FineEventBroadcaster(@Value("${fines.events.buffer-size:256}") int bufferSize,
+                                @Value("${fines.events.max-subscribers:5000}") int maxSubscribers,
+                                @Value("${fines.events.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+    }
+
+    // Runs after FineStatistics has applied the same event, so the counters include this change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        // Bulk rows arrive in a tight loop that would overflow every subscriber buffer; onBulkCreated
+        // sends one summary instead
+        if (event.isBulk()) {
+            return;
+        }
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("type", event.getType());
+        delta.put("fineId", event.getFineId());
+        delta.put("licensePlateNumber", event.getLicensePlateNumber());
+        delta.put("amount", event.getAmount());
+        delta.put("violationType", event.getViolationType());
+        delta.put("violationDate", event.getViolationDate());
+        delta.put("issuedByUsername", event.getIssuedByUsername());
+        delta.put("previousStatus", event.getPreviousStatus());
+        delta.put("status", event.getStatus());
+        delta.put("occurredAt", event.getOccurredAt());
+        delta.put("counters", counters());
+
+        emit(delta);
+    }
+
+    // The overdue sweep flags fines with bulk UPDATEs, which publish no FineChangedEvent; push the
+    // refreshed counters so dashboards pick up late fees without waiting for an unrelated change
+    public void onOverdueSweep(long flagged) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("type", "OVERDUE_SWEEP");
+        delta.put("flagged", flagged);
+        delta.put("occurredAt", LocalDateTime.now());
+        delta.put("counters", counters());
+        emit(delta);
+    }
+
+    // One delta for a whole bulk issuance, sent once all of its chunks have committed
+    public void onBulkCreated(long created, String issuedByUsername) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("type", "BULK_CREATED");
+        delta.put("created", created);
+        delta.put("issuedByUsername", issuedByUsername);
+        delta.put("occurredAt", LocalDateTime.now());
+        delta.put("counters", counters());
+        emit(delta);
+    }
+
+    // Null when the subscriber limit is reached
+    public Flux<ServerSentEvent<Object>> subscribe() {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+        Flux<ServerSentEvent<Object>> changes = sink.asFlux()
+                .onBackpressureBuffer(bufferSize, dropped -> evicted.increment(), BufferOverflowStrategy.ERROR)
+                .map(delta -> ServerSentEvent.<Object>builder(delta).event("fine").build());
+        // Heartbeats keep proxies from closing idle streams and surface dead clients as write errors
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+        return Flux.concat(Flux.just(ServerSentEvent.<Object>builder(Map.of("counters", counters())).event("hello").build()),
+                        Flux.merge(changes, heartbeats))
+                .doOnError(e -> log.debug("Fine event subscriber dropped: {}", e.toString()))
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.get());
+        stats.put("published", published.sum());
+        stats.put("evictedSlowConsumers", evicted.sum());
+        stats.put("bufferSize", bufferSize);
+        return stats;
+    }
+
+    private void emit(Map<String, Object> delta) {
+        // tryEmitNext is not safe for concurrent callers; listeners run on whichever thread committed
+        synchronized (sink) {
+            sink.tryEmitNext(delta);
+        }
+        published.increment();
+    }
+
+    private Map<String, Object> counters() {
+        Map<String, Object> stats = fineStatistics.getStats();
+        Map<String, Object> counters = new HashMap<>();
+        for (String key : new String[]{"totalFines", "unpaidFines", "paidFines", "totalAmount", "outstandingAmount"}) {
+            counters.put(key, stats.get(key));
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartlpd.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.FineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes fines straight from a streaming JDBC cursor to the response, one row at a time, so heap
+// use does not grow with the size of the export.
+@Service
+public class FineExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Logger log = LoggerFactory.getLogger(FineExportService.class);
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER =
+            "id,licensePlateNumber,amount,violationType,description,violationDate,dueDate,status,issuedByUsername,overdue\n";
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public FineExportService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        // The writer is reused for every row; the target stream must stay open between rows, and closing
+        // each row's generator must not flush it (that would send one chunk per row)
+        this.objectMapper = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+                .configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, false);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Returns the number of rows written
+    public long export(FineStatus status, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) {
+        long start = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(tx -> {
+            try (Stream<FineSummary> fines = fineRepository.streamSummaries(status, from, to);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                long count = 0;
+                Iterator<FineSummary> iterator = fines.iterator();
+                while (iterator.hasNext()) {
+                    FineSummary fine = iterator.next();
+                    if (format == Format.CSV) {
+                        writeCsv(writer, fine);
+                    } else {
+                        objectMapper.writeValue(writer, fine);
+                        writer.write('\n');
+                    }
+                    // Push rows to the client as we go instead of letting the buffer decide
+                    if (++count % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                // Usually the client went away; the open cursor is closed by try-with-resources
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} fines as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows == null ? 0 : rows;
+    }
+
+    private static void writeCsv(Writer writer, FineSummary fine) throws IOException {
+        writer.write(String.valueOf(fine.getId()));
+        writer.write(',');
+        writer.write(csv(fine.getLicensePlateNumber()));
+        writer.write(',');
+        writer.write(String.valueOf(fine.getAmount()));
+        writer.write(',');
+        writer.write(csv(fine.getViolationType()));
+        writer.write(',');
+        writer.write(csv(fine.getDescription()));
+        writer.write(',');
+        writer.write(fine.getViolationDate() == null ? "" : fine.getViolationDate().toString());
+        writer.write(',');
+        writer.write(fine.getDueDate() == null ? "" : fine.getDueDate().toString());
+        writer.write(',');
+        writer.write(fine.getStatus() == null ? "" : fine.getStatus().name());
+        writer.write(',');
+        writer.write(csv(fine.getIssuedByUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(fine.isOverdue()));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
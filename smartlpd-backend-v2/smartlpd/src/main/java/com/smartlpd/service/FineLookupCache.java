@@ -0,0 +1,66 @@
+package com.smartlpd.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.repository.FineRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Read-through cache of plate -> fine summaries behind /api/fines/check. Concurrent misses on one
+// plate share a single load, and every committed fine change evicts just its own plate.
+@Component
+public class FineLookupCache {
+
+    private final LoadingCache<String, List<FineSummary>> finesByPlate;
+
+    public FineLookupCache(FineRepository fineRepository,
+                           @Value("${fines.lookup-cache.max-plates:50000}") long maxPlates,
+                           @Value("${fines.lookup-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.finesByPlate = Caffeine.newBuilder()
+                .maximumSize(maxPlates)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(plate -> List.copyOf(fineRepository.findSummariesByLicensePlateNumber(plate)));
+    }
+
+    public List<FineSummary> getFines(String licensePlateNumber) {
+        return finesByPlate.get(keyFor(licensePlateNumber));
+    }
+
+    // After commit, so a reload can never see the pre-change rows. An in-flight load for the same
+    // plate finishes first and is then discarded.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        invalidate(event.getLicensePlateNumber());
+    }
+
+    public void invalidate(String licensePlateNumber) {
+        finesByPlate.invalidate(keyFor(licensePlateNumber));
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = finesByPlate.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", finesByPlate.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    // Plate columns compare case-insensitively in MySQL, so "abc123" and "ABC123" share one entry
+    private static String keyFor(String licensePlateNumber) {
+        return licensePlateNumber == null ? "" : licensePlateNumber.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,72 +1,312 @@
 package com.smartlpd.service;
 
+import com.smartlpd.dto.BulkFineResult;
+import com.smartlpd.dto.FineCursor;
+import com.smartlpd.dto.FinePage;
+import com.smartlpd.dto.FineRequest;
+import com.smartlpd.dto.FineSummary;
+import com.smartlpd.dto.PaymentResult;
 import com.smartlpd.model.Fine;
 import com.smartlpd.model.FineStatus;
-import com.smartlpd.model.User;
+import com.smartlpd.model.PaymentIdempotencyKey;
+import com.smartlpd.model.PaymentOutcome;
 import com.smartlpd.repository.FineRepository;
+import com.smartlpd.repository.PaymentIdempotencyKeyRepository;
 import com.smartlpd.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class FineService {
 
+    private static final Logger log = LoggerFactory.getLogger(FineService.class);
+
     @Autowired
     private FineRepository fineRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PaymentIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlateMatchIndex plateMatchIndex;
+
+    @Autowired
+    private FineStatistics fineStatistics;
+
+    @Autowired
+    private PlateSearchIndex plateSearchIndex;
+
+    @Autowired
+    private FineLookupCache fineLookupCache;
+
+    @Autowired
+    private FineEventBroadcaster fineEventBroadcaster;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${fines.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    // A chunk size of 0 would never advance the bulk insert loop
+    @PostConstruct
+    void checkBulkChunkSize() {
+        if (bulkChunkSize <= 0) {
+            throw new IllegalStateException("fines.bulk.chunk-size must be positive, got " + bulkChunkSize);
+        }
+    }
+
+    @Transactional
     public Fine createFine(String licensePlateNumber, Double amount, String violationType,
                            String description, LocalDateTime violationDate, String issuedByUsername) {
-        User issuer = null;
-        if (issuedByUsername != null && !issuedByUsername.equals("system")) {
-            Optional<User> issuerOptional = userRepository.findByUsername(issuedByUsername);
-            issuer = issuerOptional.orElse(null);
+        UserCache.CachedUser issuer = findIssuer(issuedByUsername);
+
+        Fine fine = new Fine(licensePlateNumber, amount, violationType, description, violationDate, null);
+        setIssuer(fine, issuer);
+        Fine saved = fineRepository.save(fine);
+        eventPublisher.publishEvent(FineChangedEvent.created(saved));
+        return saved;
+    }
+
+    // Validates every row first, then inserts the valid ones in chunked transactions. A failed chunk
+    // only fails its own rows; results come back in request order.
+    public List<BulkFineResult> createFines(List<FineRequest> requests, String issuedByUsername) {
+        UserCache.CachedUser issuer = findIssuer(issuedByUsername);
+
+        BulkFineResult[] results = new BulkFineResult[requests.size()];
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem == null) {
+                validRows.add(i);
+            } else {
+                results[i] = BulkFineResult.failed(i, problem);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long created = 0;
+        for (int start = 0; start < validRows.size(); start += bulkChunkSize) {
+            List<Integer> chunk = validRows.subList(start, Math.min(start + bulkChunkSize, validRows.size()));
+            List<Fine> fines = new ArrayList<>(chunk.size());
+            for (int row : chunk) {
+                FineRequest request = requests.get(row);
+                LocalDateTime violationDate = request.getViolationDate() != null ? request.getViolationDate() : now;
+                fines.add(new Fine(request.getLicensePlateNumber().trim(), request.getAmount(), request.getViolationType(),
+                        request.getDescription(), violationDate, null));
+            }
+            try {
+                // Sequence ids let Hibernate send each chunk as JDBC batches of hibernate.jdbc.batch_size
+                transactionTemplate.executeWithoutResult(status -> {
+                    fines.forEach(fine -> setIssuer(fine, issuer));
+                    fineRepository.saveAll(fines);
+                    fines.forEach(fine -> eventPublisher.publishEvent(FineChangedEvent.createdInBulk(fine)));
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = BulkFineResult.created(chunk.get(i), fines.get(i).getId());
+                }
+                created += chunk.size();
+            } catch (Exception e) {
+                // The driver message can name tables and constraints, so it goes to the log rather than the client
+                log.error("Bulk fine insert failed for rows {}..{}", chunk.get(0), chunk.get(chunk.size() - 1), e);
+                for (int row : chunk) {
+                    results[row] = BulkFineResult.failed(row, "Insert failed");
+                }
+            }
+        }
+        // Every chunk has committed and its events are applied, so the pushed counters include them all
+        if (created > 0) {
+            fineEventBroadcaster.onBulkCreated(created, issuer == null ? "System" : issuer.getUsername());
+        }
+        return List.of(results);
+    }
+
+    private UserCache.CachedUser findIssuer(String issuedByUsername) {
+        if (issuedByUsername == null || issuedByUsername.equals("system")) {
+            return null;
+        }
+        return userCache.findByUsername(issuedByUsername).orElse(null);
+    }
+
+    // The issuer row is only referenced by id, so issuing a fine does not read the users table
+    private void setIssuer(Fine fine, UserCache.CachedUser issuer) {
+        if (issuer != null) {
+            fine.setIssuedBy(userRepository.getReferenceById(issuer.getId()), issuer.getUsername());
+        }
+    }
+
+    private static String validate(FineRequest request) {
+        if (request == null) {
+            return "Fine is required";
         }
+        if (request.getLicensePlateNumber() == null || request.getLicensePlateNumber().trim().isEmpty()) {
+            return "License plate number is required";
+        }
+        if (request.getLicensePlateNumber().trim().length() > 20) {
+            return "License plate number is longer than 20 characters";
+        }
+        if (request.getAmount() == null || !(request.getAmount() > 0)) {
+            return "Amount must be greater than zero";
+        }
+        if (request.getViolationType() == null || request.getViolationType().trim().isEmpty()) {
+            return "Violation type is required";
+        }
+        if (request.getViolationType().length() > 100) {
+            return "Violation type is longer than 100 characters";
+        }
+        if (request.getDescription() != null && request.getDescription().length() > 500) {
+            return "Description is longer than 500 characters";
+        }
+        return null;
+    }
 
-        Fine fine = new Fine(licensePlateNumber, amount, violationType, description, violationDate, issuer);
-        return fineRepository.save(fine);
+    // Served from FineLookupCache; the returned list is immutable
+    public List<FineSummary> getFinesByLicensePlate(String licensePlateNumber) {
+        return fineLookupCache.getFines(licensePlateNumber);
     }
 
-    public List<Fine> getFinesByLicensePlate(String licensePlateNumber) {
-        return fineRepository.findByLicensePlateNumberOrderByViolationDateDesc(licensePlateNumber);
+    public Map<String, Object> getFineLookupCacheStats() {
+        return fineLookupCache.getStats();
     }
 
     public List<Fine> getUnpaidFinesByLicensePlate(String licensePlateNumber) {
         return fineRepository.findByLicensePlateNumberAndStatusOrderByViolationDateDesc(licensePlateNumber, FineStatus.UNPAID);
     }
 
-    public List<Fine> getAllFines() {
-        return fineRepository.findAll();
+    // Known plates close to a possibly misread one, for when exact lookup finds nothing
+    public List<PlateMatchIndex.Candidate> findPlateCandidates(String licensePlateNumber, int maxDistance, int limit) {
+        return plateMatchIndex.findCandidates(licensePlateNumber, maxDistance, limit);
+    }
+
+    // Keyset page of fine projections; one extra row is fetched to know whether another page exists
+    public FinePage listFines(FineStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        FineCursor after = cursor == null || cursor.isEmpty() ? null : FineCursor.decode(cursor);
+        List<FineSummary> rows = fineRepository.findSummaries(status, from, to, after, size + 1);
+        if (rows.size() <= size) {
+            return new FinePage(rows, null);
+        }
+        List<FineSummary> page = rows.subList(0, size);
+        return new FinePage(page, FineCursor.after(page.get(size - 1)).encode());
+    }
+
+    public Map<String, Object> getFineStatistics() {
+        return fineStatistics.getStats();
     }
 
+    @Transactional
     public Fine updateFineStatus(Long fineId, FineStatus status, String updatedByUsername) {
         Optional<Fine> fineOptional = fineRepository.findById(fineId);
         if (fineOptional.isPresent()) {
             Fine fine = fineOptional.get();
+            FineStatus previousStatus = fine.getStatus();
             fine.setStatus(status);
-            return fineRepository.save(fine);
+            Fine saved = fineRepository.save(fine);
+            if (previousStatus != status) {
+                eventPublisher.publishEvent(FineChangedEvent.statusChanged(saved, previousStatus));
+            }
+            return saved;
         }
         throw new RuntimeException("Fine not found");
     }
 
-    public boolean payFine(Long fineId, String licensePlateNumber) {
-        Optional<Fine> fineOptional = fineRepository.findByIdAndLicensePlateNumber(fineId, licensePlateNumber);
-        if (fineOptional.isPresent()) {
-            Fine fine = fineOptional.get();
-            fine.setStatus(FineStatus.PAID);
-            fineRepository.save(fine);
-            return true;
+    // One conditional UPDATE (status UNPAID -> PAID) picks the single winner among concurrent payments.
+    // With an idempotency key the outcome is stored in the same transaction; a retry replays it without
+    // writing, and a racing retry with the same key loses on the key's primary key and replays too.
+    public PaymentResult payFine(Long fineId, String licensePlateNumber, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<PaymentIdempotencyKey> stored = idempotencyKeyRepository.findById(idempotencyKey);
+            if (stored.isPresent()) {
+                return replay(stored.get(), fineId, licensePlateNumber);
+            }
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                PaymentOutcome outcome = fineRepository.markPaid(fineId, licensePlateNumber, LocalDateTime.now()) == 1
+                        ? PaymentOutcome.PAID
+                        : fineRepository.findByIdAndLicensePlateNumber(fineId, licensePlateNumber)
+                                .map(fine -> fine.getStatus() == FineStatus.PAID ? PaymentOutcome.ALREADY_PAID : PaymentOutcome.NOT_PAYABLE)
+                                .orElse(PaymentOutcome.NOT_FOUND);
+                if (idempotencyKey != null) {
+                    // persist, not save(): merge would overwrite a key another request stored meanwhile
+                    entityManager.persist(new PaymentIdempotencyKey(idempotencyKey, fineId, licensePlateNumber, outcome));
+                    entityManager.flush();
+                }
+                if (outcome == PaymentOutcome.PAID) {
+                    fineRepository.findById(fineId).ifPresent(fine ->
+                            eventPublisher.publishEvent(FineChangedEvent.statusChanged(fine, FineStatus.UNPAID)));
+                }
+                return new PaymentResult(outcome, false);
+            });
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                Optional<PaymentIdempotencyKey> stored = idempotencyKeyRepository.findById(idempotencyKey);
+                if (stored.isPresent()) {
+                    return replay(stored.get(), fineId, licensePlateNumber);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static PaymentResult replay(PaymentIdempotencyKey stored, Long fineId, String licensePlateNumber) {
+        if (!stored.getFineId().equals(fineId) || !stored.getLicensePlateNumber().equals(licensePlateNumber)) {
+            throw new IllegalStateException("Idempotency key was already used for a different payment");
+        }
+        return new PaymentResult(stored.getOutcome(), true);
+    }
+
+    // Plate substring (or prefix) search through the in-memory n-gram index; only the page's rows are read from MySQL
+    public FinePage searchFines(String searchTerm, boolean prefix, String cursor, int size) {
+        FineCursor after = cursor == null || cursor.isEmpty() ? null : FineCursor.decode(cursor);
+        List<PlateSearchIndex.Hit> hits = plateSearchIndex.search(searchTerm, prefix, after, size + 1);
+        boolean hasMore = hits.size() > size;
+        if (hasMore) {
+            hits = hits.subList(0, size);
+        }
+        if (hits.isEmpty()) {
+            return new FinePage(List.of(), null);
         }
-        return false;
+
+        List<Long> ids = hits.stream().map(PlateSearchIndex.Hit::getFineId).collect(Collectors.toList());
+        Map<Long, FineSummary> byId = fineRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(FineSummary::getId, Function.identity()));
+        List<FineSummary> fines = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+
+        PlateSearchIndex.Hit last = hits.get(hits.size() - 1);
+        return new FinePage(fines, hasMore ? new FineCursor(last.getViolationDate(), last.getFineId()).encode() : null);
     }
 
-    public List<Fine> searchFines(String searchTerm) {
-        return fineRepository.findByLicensePlateNumberContainingIgnoreCaseOrderByViolationDateDesc(searchTerm);
+    public Map<String, Object> getPlateSearchStats() {
+        return plateSearchIndex.getStats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.FineRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// In-memory fine counters grouped by (status, violation type, issuer). Updated from committed
+// FineChangedEvents and periodically replaced from one GROUP BY query, which also repairs any
+// drift (e.g. rows changed outside FineService). Reads never touch the fines table.
+@Component
+public class FineStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(FineStatistics.class);
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    private static final class Group {
+        final FineStatus status;
+        final String violationType;
+        final String issuedByUsername;
+
+        Group(FineStatus status, String violationType, String issuedByUsername) {
+            this.status = status;
+            this.violationType = violationType == null ? "UNKNOWN" : violationType;
+            this.issuedByUsername = issuedByUsername == null ? "System" : issuedByUsername;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Group)) {
+                return false;
+            }
+            Group other = (Group) o;
+            return status == other.status && violationType.equals(other.violationType)
+                    && issuedByUsername.equals(other.issuedByUsername);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, violationType, issuedByUsername);
+        }
+    }
+
+    private static final class Totals {
+        long count;
+        double amount;
+
+        void add(long count, double amount) {
+            this.count += count;
+            this.amount += amount;
+        }
+    }
+
+    // Fine writes are rare next to reads, so a plain lock over a small map is enough
+    private Map<Group, Totals> groups = new HashMap<>();
+    // Bumped by every applied event; reconcile only swaps in a snapshot taken while it did not move
+    private long changeSequence;
+    private LocalDateTime lastReconciledAt;
+    private long lastReconcileDrift;
+
+    @PostConstruct
+    public void load() {
+        reconcile();
+    }
+
+    // Ordered first so listeners that report counters (FineEventBroadcaster) see this change applied
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        double amount = event.getAmount() == null ? 0 : event.getAmount();
+        synchronized (this) {
+            if (event.getPreviousStatus() != null) {
+                totalsFor(event, event.getPreviousStatus()).add(-1, -amount);
+            }
+            totalsFor(event, event.getStatus()).add(1, amount);
+            changeSequence++;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${fines.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${fines.stats.reconcile-interval-ms:300000}")
+    // An event applied while the query ran may or may not be in its snapshot, so swapping would lose or
+    // double-count it; retry instead. If fines keep changing, the incremental counters are kept.
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long sequence;
+            synchronized (this) {
+                sequence = changeSequence;
+            }
+            Map<Group, Totals> fresh = aggregate();
+            synchronized (this) {
+                // The first load has nothing better to keep, so it swaps regardless
+                if (sequence == changeSequence || (attempt == RECONCILE_ATTEMPTS && lastReconciledAt == null)) {
+                    replaceGroups(fresh);
+                    return;
+                }
+            }
+        }
+        log.debug("Fine statistics reconcile skipped: fines changed during each of {} attempts", RECONCILE_ATTEMPTS);
+    }
+
+    private Map<Group, Totals> aggregate() {
+        Map<Group, Totals> fresh = new HashMap<>();
+        for (Object[] row : fineRepository.aggregateByStatusTypeAndIssuer()) {
+            Totals totals = new Totals();
+            totals.add(((Number) row[3]).longValue(), row[4] == null ? 0 : ((Number) row[4]).doubleValue());
+            fresh.merge(new Group((FineStatus) row[0], (String) row[1], (String) row[2]), totals, (a, b) -> {
+                a.add(b.count, b.amount);
+                return a;
+            });
+        }
+        return fresh;
+    }
+
+    // Caller holds the lock
+    private void replaceGroups(Map<Group, Totals> fresh) {
+        long drift = 0;
+        for (Map.Entry<Group, Totals> entry : fresh.entrySet()) {
+            Totals current = groups.get(entry.getKey());
+            drift += Math.abs(entry.getValue().count - (current == null ? 0 : current.count));
+        }
+        for (Map.Entry<Group, Totals> entry : groups.entrySet()) {
+            if (!fresh.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue().count);
+            }
+        }
+        if (lastReconciledAt != null && drift > 0) {
+            log.warn("Fine statistics drifted by {} fines since the last reconcile", drift);
+        }
+        groups = fresh;
+        lastReconciledAt = LocalDateTime.now();
+        lastReconcileDrift = drift;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<FineStatus, Totals> byStatus = new TreeMap<>();
+        Map<String, Totals> byViolationType = new TreeMap<>();
+        Map<String, Totals> byIssuer = new TreeMap<>();
+        Totals total = new Totals();
+        Totals outstanding = new Totals();
+        for (Map.Entry<Group, Totals> entry : groups.entrySet()) {
+            Group group = entry.getKey();
+            Totals totals = entry.getValue();
+            byStatus.computeIfAbsent(group.status, s -> new Totals()).add(totals.count, totals.amount);
+            byViolationType.computeIfAbsent(group.violationType, t -> new Totals()).add(totals.count, totals.amount);
+            byIssuer.computeIfAbsent(group.issuedByUsername, i -> new Totals()).add(totals.count, totals.amount);
+            total.add(totals.count, totals.amount);
+            if (group.status == FineStatus.UNPAID) {
+                outstanding.add(totals.count, totals.amount);
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalFines", total.count);
+        stats.put("unpaidFines", countOf(byStatus.get(FineStatus.UNPAID)));
+        stats.put("paidFines", countOf(byStatus.get(FineStatus.PAID)));
+        stats.put("totalAmount", round(total.amount));
+        stats.put("outstandingAmount", round(outstanding.amount));
+        stats.put("byStatus", breakdown(byStatus));
+        stats.put("byViolationType", breakdown(byViolationType));
+        stats.put("byIssuer", breakdown(byIssuer));
+        stats.put("lastReconciledAt", lastReconciledAt);
+        stats.put("lastReconcileDrift", lastReconcileDrift);
+        return stats;
+    }
+
+    private Totals totalsFor(FineChangedEvent event, FineStatus status) {
+        return groups.computeIfAbsent(new Group(status, event.getViolationType(), event.getIssuedByUsername()),
+                g -> new Totals());
+    }
+
+    private static <K> Map<String, Object> breakdown(Map<K, Totals> totalsByKey) {
+        Map<String, Object> breakdown = new TreeMap<>();
+        totalsByKey.forEach((key, totals) -> {
+            if (totals.count != 0) {
+                breakdown.put(String.valueOf(key), Map.of("count", totals.count, "amount", round(totals.amount)));
+            }
+        });
+        return breakdown;
+    }
+
+    private static long countOf(Totals totals) {
+        return totals == null ? 0 : totals.count;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
@@ -2,54 +2,222 @@ package com.smartlpd.service;
 
 import com.smartlpd.dto.DetectionRequest;
 import com.smartlpd.dto.DetectionResponse;
+import com.smartlpd.model.DetectionHistory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.Random;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class LicensePlateService {
     private Random random = new Random();
 
     @Autowired
-    private MLService mlService;
+    private PlateRecognitionEngine recognitionEngine;
 
-    public DetectionResponse detectLicensePlate(DetectionRequest request) {
-        DetectionResponse response = new DetectionResponse();
+    @Autowired
+    private DetectionResultCache detectionResultCache;
+
+    @Autowired
+    private DetectionHistoryWriter detectionHistoryWriter;
 
-        try {
-            // Try real ML service first
-            Map<String, Object> mlResult = mlService.detectLicensePlate(request.getImageData());
+    @Autowired
+    private UnpaidFineWatchlist unpaidFineWatchlist;
 
-            if (mlResult != null && Boolean.TRUE.equals(mlResult.get("success"))) {
-                response.setLicensePlateNumber((String) mlResult.get("license_plate"));
+    @Autowired
+    private PlateMatchIndex plateMatchIndex;
 
-                // Handle different number types (Double, Integer, etc.)
-                Object confidenceObj = mlResult.get("confidence");
-                if (confidenceObj instanceof Number) {
-                    response.setConfidence(((Number) confidenceObj).doubleValue());
-                } else {
-                    response.setConfidence(0.85); // Default confidence
-                }
+    @Autowired
+    private RollupService rollupService;
 
-                response.setSuccess(true);
-                response.setMessage("License plate detected using ML model");
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.batch.parallelism:4}")
+    private int batchParallelism;
+
+    public Mono<DetectionResponse> detectLicensePlate(DetectionRequest request) {
+        return detect(request.getImageData(), currentUsername());
+    }
+
+    // Results are emitted in request order while up to batchParallelism images are in flight
+    public Flux<DetectionResponse> detectLicensePlates(List<String> images) {
+        String username = currentUsername();
+        return Flux.fromIterable(images)
+                .flatMapSequential(imageData -> detect(imageData, username), batchParallelism);
+    }
+
+    public Mono<DetectionResponse> detectLicensePlate(Callable<InputStream> imageStream, long contentLength) {
+        return toDetectionResponse(timed(recognitionEngine.detectLicensePlate(imageStream, contentLength)), currentUsername());
+    }
+
+    private Mono<DetectionResponse> detect(String imageData, String username) {
+        if (imageData == null || imageData.isEmpty()) {
+            return toDetectionResponse(timed(recognitionEngine.detectLicensePlate(imageData)), username);
+        }
+
+        // Byte-identical frames (fixed cameras, client retries) reuse the earlier ML result
+        String cacheKey = detectionResultCache.keyFor(imageData);
+        Mono<Map<String, Object>> mlCall = detectionResultCache.get(cacheKey)
+                .switchIfEmpty(Mono.defer(() -> timed(recognitionEngine.detectLicensePlate(imageData))
+                        .doOnNext(result -> {
+                            if (Boolean.TRUE.equals(result.get("success"))) {
+                                detectionResultCache.put(cacheKey, result);
+                            }
+                        })));
+        return toDetectionResponse(mlCall, username);
+    }
+
+    // Engine latency by how the plate was found (contour, full_image, alt_psm), or fallback when the
+    // response falls back to mock data. Engines report failures as result maps rather than errors,
+    // so the outcome comes from the result: success, no_plate, engine_error or unavailable.
+    private Mono<Map<String, Object>> timed(Mono<Map<String, Object>> recognition) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return recognition.doOnSuccess(result -> sample.stop(recognitionTimer(methodOf(result),
+                    isSuccess(result) ? "success" : failureReasonOf(result))));
+        });
+    }
+
+    private Timer recognitionTimer(String method, String outcome) {
+        return Timer.builder("smartlpd.recognition")
+                .description("Plate recognition engine calls")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static boolean isSuccess(Map<String, Object> result) {
+        return result != null && Boolean.TRUE.equals(result.get("success"));
+    }
+
+    private static String methodOf(Map<String, Object> result) {
+        if (!isSuccess(result)) {
+            return "fallback";
+        }
+        String method = String.valueOf(result.get("method"));
+        if (method.startsWith("contour")) {
+            return "contour";
+        }
+        if (method.startsWith("full_image")) {
+            return "full_image";
+        }
+        if (method.startsWith("alt_psm")) {
+            return "alt_psm";
+        }
+        return "other";
+    }
+
+    // Why an unsuccessful result fell back: MLService answers SERVICE_UNAVAILABLE for outages, open
+    // circuits, bulkhead rejections and timeouts; an engine that ran but threw reports an error with
+    // a method other than real_detection_failed; anything else means no plate was found
+    private static String failureReasonOf(Map<String, Object> result) {
+        if (result == null || "SERVICE_UNAVAILABLE".equals(result.get("license_plate"))) {
+            return "unavailable";
+        }
+        if (result.get("error") != null && !"real_detection_failed".equals(result.get("method"))) {
+            return "engine_error";
+        }
+        return "no_plate";
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return detectionResultCache.getStats();
+    }
+
+    public Map<String, Object> getRecognitionEngineStats() {
+        return recognitionEngine.getStats();
+    }
+
+    public Map<String, Object> getHistoryWriterStats() {
+        return detectionHistoryWriter.getStats();
+    }
+
+    public Map<String, Object> getWatchlistStats() {
+        return unpaidFineWatchlist.getStats();
+    }
+
+    private Mono<DetectionResponse> toDetectionResponse(Mono<Map<String, Object>> mlCall, String username) {
+        // Engines never error; an ML failure arrives as an unsuccessful result and falls back to mock data
+        return mlCall
+                .map(mlResult -> {
+                    DetectionResponse response = toDetectionResponse(mlResult);
+                    if (Boolean.TRUE.equals(mlResult.get("success"))) {
+                        markWatchlistHit(response);
+                        recordDetection(response, username);
+                    }
+                    return response;
+                });
+    }
+
+    private DetectionResponse toDetectionResponse(Map<String, Object> mlResult) {
+        DetectionResponse response = new DetectionResponse();
+
+        if (mlResult != null && Boolean.TRUE.equals(mlResult.get("success"))) {
+            response.setLicensePlateNumber((String) mlResult.get("license_plate"));
+
+            // Handle different number types (Double, Integer, etc.)
+            Object confidenceObj = mlResult.get("confidence");
+            if (confidenceObj instanceof Number) {
+                response.setConfidence(((Number) confidenceObj).doubleValue());
             } else {
-                // Fallback to mock detection
-                fallbackToMockDetection(response);
-                response.setMessage("ML service returned no results, using mock data");
+                response.setConfidence(0.85); // Default confidence
             }
 
-        } catch (Exception e) {
-            // Fallback to mock detection if ML service fails
+            response.setSuccess(true);
+            response.setMessage("License plate detected using ML model");
+        } else {
+            // Fallback to mock detection
+            String reason = failureReasonOf(mlResult);
+            meterRegistry.counter("smartlpd.detection.fallback", "reason", reason).increment();
             fallbackToMockDetection(response);
-            response.setMessage("ML service unavailable, using mock data");
+            response.setMessage("unavailable".equals(reason)
+                    ? "ML service unavailable, using mock data"
+                    : "ML service returned no results, using mock data");
         }
 
         return response;
     }
 
+    // O(1) lookup against the in-memory index; mock plates are never flagged
+    private void markWatchlistHit(DetectionResponse response) {
+        int unpaidFines = unpaidFineWatchlist.unpaidFineCount(response.getLicensePlateNumber());
+        response.setWatchlistHit(unpaidFines > 0);
+        response.setUnpaidFineCount(unpaidFines);
+    }
+
+    // Audit trail of real reads only; mock fallbacks are not recorded. Queued, never written inline.
+    private void recordDetection(DetectionResponse response, String username) {
+        DetectionHistory detection = new DetectionHistory(response.getLicensePlateNumber(), null, response.getConfidence(), null);
+        if (username != null) {
+            detection.setUserUsername(username);
+        }
+        detectionHistoryWriter.record(detection);
+        plateMatchIndex.add(response.getLicensePlateNumber());
+        rollupService.recordDetection(detection.getDetectionTime());
+    }
+
+    // Read on the request thread; the security context does not follow the reactive pipeline
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String)) {
+            return null;
+        }
+        return (String) authentication.getPrincipal();
+    }
+
     private void fallbackToMockDetection(DetectionResponse response) {
         String[] samplePlates = {"ABC123", "XYZ789", "DEF456", "GHI789", "JKL012"};
         String detectedPlate = samplePlates[random.nextInt(samplePlates.length)];
@@ -58,4 +226,4 @@ public class LicensePlateService {
         response.setConfidence(0.85 + (random.nextDouble() * 0.15));
         response.setSuccess(true);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,416 @@
+package com.smartlpd.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process engine: a Java port of ml-service/app.py (preprocess, plate region search,
+// multi-PSM Tesseract OCR, validate_license_plate scoring). Skips the HTTP/base64 hop to Python;
+// Tesseract is still invoked as a process, exactly as pytesseract does.
+@Service
+@ConditionalOnProperty(name = "ml.engine", havingValue = "local")
+public class LocalPlateRecognitionEngine implements PlateRecognitionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalPlateRecognitionEngine.class);
+
+    private static final String CHAR_WHITELIST = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int[] ALTERNATIVE_PSMS = {7, 10, 11, 13};
+    private static final int MAX_CANDIDATE_REGIONS = 15;
+
+    private final String tesseractCmd;
+    private final long ocrTimeoutMs;
+    private final Scheduler scheduler;
+    private final LongAdder recognitions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public LocalPlateRecognitionEngine(@Value("${ml.local.tesseract-cmd:tesseract}") String tesseractCmd,
+                                       @Value("${ml.local.ocr-timeout-ms:10000}") long ocrTimeoutMs,
+                                       @Value("${ml.local.max-concurrency:0}") int maxConcurrency) {
+        this.tesseractCmd = tesseractCmd;
+        this.ocrTimeoutMs = ocrTimeoutMs;
+        int threads = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(threads, 1000, "plate-recognition");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    @Override
+    public Mono<Map<String, Object>> detectLicensePlate(String imageData) {
+        if (imageData == null) {
+            return Mono.just(failure("processing_error", "No image data provided", 0));
+        }
+        return Mono.fromCallable(() -> recognize(() -> new ByteArrayInputStream(Base64.getMimeDecoder().decode(imageData))))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> detectLicensePlate(Callable<InputStream> imageStream, long contentLength) {
+        return Mono.fromCallable(() -> recognize(imageStream))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("engine", "local");
+        stats.put("recognitions", recognitions.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    Map<String, Object> recognize(Callable<InputStream> imageStream) {
+        long start = System.nanoTime();
+        recognitions.increment();
+        try {
+            BufferedImage image;
+            try (InputStream in = imageStream.call()) {
+                image = ImageIO.read(in);
+            }
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] gray = toGray(image);
+
+            // Method 1: Contour-based detection (most accurate)
+            int[] region = detectLicensePlateRegion(gray, width, height);
+            if (region != null) {
+                Plate plate = validateLicensePlate(extractTextWithOcr(crop(gray, width, region), region[2], region[3], 8));
+                if (plate != null) {
+                    return success(plate.text(), plate.confidence(), "contour_detection", start);
+                }
+            }
+
+            // Method 2: Full image OCR (fallback)
+            Plate plate = validateLicensePlate(extractTextWithOcr(gray, width, height, 6));
+            if (plate != null) {
+                return success(plate.text(), plate.confidence() * 0.8, "full_image_ocr", start);
+            }
+
+            // Method 3: Try different OCR configurations
+            for (int psm : ALTERNATIVE_PSMS) {
+                plate = validateLicensePlate(extractTextWithOcr(gray, width, height, psm));
+                if (plate != null) {
+                    return success(plate.text(), plate.confidence() * 0.7, "alt_psm_" + psm, start);
+                }
+            }
+
+            failures.increment();
+            Map<String, Object> result = failure("real_detection_failed", "No license plate could be detected in the image", start);
+            result.put("license_plate", "NOT_DETECTED");
+            return result;
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Local plate recognition failed: {}", e.getMessage());
+            return failure("processing_error", "Detection failed: " + e.getMessage(), start);
+        }
+    }
+
+    // ---- preprocessing (cv2.cvtColor / GaussianBlur / threshold with OTSU) ----
+
+    static int[] toGray(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] rgb = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] gray = new int[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            int p = rgb[i];
+            int r = (p >> 16) & 0xFF;
+            int g = (p >> 8) & 0xFF;
+            int b = p & 0xFF;
+            gray[i] = (r * 299 + g * 587 + b * 114 + 500) / 1000;
+        }
+        return gray;
+    }
+
+    // Separable 5x5 Gaussian, the kernel OpenCV derives for ksize 5 with sigma 0
+    static int[] gaussianBlur5(int[] src, int width, int height) {
+        int[] kernel = {1, 4, 6, 4, 1};
+        int[] tmp = new int[src.length];
+        int[] out = new int[src.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int sum = 0;
+                for (int k = -2; k <= 2; k++) {
+                    int xx = reflect(x + k, width);
+                    sum += kernel[k + 2] * src[y * width + xx];
+                }
+                tmp[y * width + x] = sum;
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int sum = 0;
+                for (int k = -2; k <= 2; k++) {
+                    int yy = reflect(y + k, height);
+                    sum += kernel[k + 2] * tmp[yy * width + x];
+                }
+                out[y * width + x] = (sum + 128) / 256;
+            }
+        }
+        return out;
+    }
+
+    static int otsuThreshold(int[] gray) {
+        int[] histogram = new int[256];
+        for (int v : gray) {
+            histogram[v]++;
+        }
+        long total = gray.length;
+        long sumAll = 0;
+        for (int i = 0; i < 256; i++) {
+            sumAll += (long) i * histogram[i];
+        }
+        long sumBackground = 0;
+        long weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = 0;
+        for (int t = 0; t < 256; t++) {
+            weightBackground += histogram[t];
+            if (weightBackground == 0) {
+                continue;
+            }
+            long weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (long) t * histogram[t];
+            double meanBackground = (double) sumBackground / weightBackground;
+            double meanForeground = (double) (sumAll - sumBackground) / weightForeground;
+            double variance = (double) weightBackground * weightForeground
+                    * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = t;
+            }
+        }
+        return threshold;
+    }
+
+    // ---- plate region search (detect_license_plate_contours) ----
+
+    // Bright connected regions of the Otsu image stand in for cv2.findContours; a region counts as
+    // rectangular (approxPolyDP == 4 corners) when it fills most of its bounding box.
+    static int[] detectLicensePlateRegion(int[] gray, int width, int height) {
+        int[] blurred = gaussianBlur5(gray, width, height);
+        int threshold = otsuThreshold(blurred);
+        boolean[] foreground = new boolean[blurred.length];
+        for (int i = 0; i < blurred.length; i++) {
+            foreground[i] = blurred[i] > threshold;
+        }
+
+        List<int[]> regions = new ArrayList<>(); // x, y, w, h, pixelCount
+        boolean[] visited = new boolean[foreground.length];
+        int[] stack = new int[foreground.length];
+        for (int start = 0; start < foreground.length; start++) {
+            if (!foreground[start] || visited[start]) {
+                continue;
+            }
+            int minX = width, minY = height, maxX = -1, maxY = -1, count = 0;
+            int top = 0;
+            stack[top++] = start;
+            visited[start] = true;
+            while (top > 0) {
+                int p = stack[--top];
+                int x = p % width;
+                int y = p / width;
+                count++;
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+                if (x > 0 && foreground[p - 1] && !visited[p - 1]) { visited[p - 1] = true; stack[top++] = p - 1; }
+                if (x < width - 1 && foreground[p + 1] && !visited[p + 1]) { visited[p + 1] = true; stack[top++] = p + 1; }
+                if (y > 0 && foreground[p - width] && !visited[p - width]) { visited[p - width] = true; stack[top++] = p - width; }
+                if (y < height - 1 && foreground[p + width] && !visited[p + width]) { visited[p + width] = true; stack[top++] = p + width; }
+            }
+            regions.add(new int[]{minX, minY, maxX - minX + 1, maxY - minY + 1, count});
+        }
+
+        regions.sort(Comparator.comparingLong((int[] r) -> (long) r[2] * r[3]).reversed());
+        for (int i = 0; i < Math.min(MAX_CANDIDATE_REGIONS, regions.size()); i++) {
+            int[] r = regions.get(i);
+            int w = r[2];
+            int h = r[3];
+            double aspectRatio = (double) w / h;
+            double fill = (double) r[4] / ((long) w * h);
+            // Typical license plate aspect ratios
+            if (fill >= 0.5 && aspectRatio >= 1.5 && aspectRatio <= 4.0 && w > 50 && h > 20
+                    && !(w == width && h == height)) {
+                return new int[]{r[0], r[1], w, h};
+            }
+        }
+        return null;
+    }
+
+    // ---- OCR (extract_text_with_ocr) ----
+
+    String extractTextWithOcr(int[] gray, int width, int height, int psm) {
+        try {
+            BufferedImage region = toImage(gray, width, height);
+            // Resize if too small
+            if (width < 100) {
+                double scale = 200.0 / width;
+                region = resizeBicubic(region, (int) (width * scale), (int) (height * scale));
+            }
+            int[] pixels = toGray(region);
+            int threshold = otsuThreshold(pixels);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = pixels[i] > threshold ? 255 : 0;
+            }
+            return runTesseract(toImage(pixels, region.getWidth(), region.getHeight()), psm).trim();
+        } catch (Exception e) {
+            log.debug("OCR error: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    private String runTesseract(BufferedImage image, int psm) throws IOException, InterruptedException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        Process process = new ProcessBuilder(tesseractCmd, "stdin", "stdout",
+                "--psm", String.valueOf(psm), "-c", "tessedit_char_whitelist=" + CHAR_WHITELIST)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            png.writeTo(stdin);
+        }
+        // OCR output is a few bytes, well under the pipe buffer, so waiting before reading is safe
+        if (!process.waitFor(ocrTimeoutMs, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Tesseract timed out");
+        }
+        return new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    // ---- scoring (validate_license_plate) ----
+
+    static Plate validateLicensePlate(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+
+        // Clean text - remove special characters, keep only letters and numbers
+        String cleaned = text.toUpperCase().replaceAll("[^A-Z0-9]", "");
+
+        if (cleaned.length() < 4 || cleaned.length() > 10) {
+            return null;
+        }
+
+        boolean hasLetters = cleaned.chars().anyMatch(Character::isLetter);
+        boolean hasDigits = cleaned.chars().anyMatch(Character::isDigit);
+        if (!(hasLetters && hasDigits)) {
+            return null;
+        }
+
+        double baseConfidence = 0.5;
+        double lengthBonus = Math.min(cleaned.length() * 0.05, 0.3);
+        double mixedBonus = 0.2;
+        double confidence = Math.min(baseConfidence + lengthBonus + mixedBonus, 0.95);
+        return new Plate(cleaned, confidence);
+    }
+
+    record Plate(String text, double confidence) {}
+
+    // ---- helpers ----
+
+    private static int reflect(int i, int size) {
+        // BORDER_REFLECT_101, OpenCV's default border mode
+        if (size == 1) {
+            return 0;
+        }
+        if (i < 0) {
+            return -i;
+        }
+        if (i >= size) {
+            return 2 * size - i - 2;
+        }
+        return i;
+    }
+
+    private static int[] crop(int[] gray, int width, int[] region) {
+        int x = region[0], y = region[1], w = region[2], h = region[3];
+        int[] out = new int[w * h];
+        for (int row = 0; row < h; row++) {
+            System.arraycopy(gray, (y + row) * width + x, out, row * w, w);
+        }
+        return out;
+    }
+
+    private static BufferedImage toImage(int[] gray, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < gray.length; i++) {
+            data[i] = (byte) gray[i];
+        }
+        return image;
+    }
+
+    private static BufferedImage resizeBicubic(BufferedImage src, int width, int height) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.drawImage(src, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+
+    private static Map<String, Object> success(String plate, double confidence, String method, long startNanos) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("license_plate", plate);
+        result.put("confidence", round2(confidence));
+        result.put("success", true);
+        result.put("method", method);
+        result.put("processing_time", round2((System.nanoTime() - startNanos) / 1e9));
+        return result;
+    }
+
+    private static Map<String, Object> failure(String method, String error, long startNanos) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("license_plate", "DETECTION_ERROR");
+        result.put("confidence", 0.0);
+        result.put("success", false);
+        result.put("method", method);
+        result.put("error", error);
+        result.put("processing_time", startNanos == 0 ? 0.0 : round2((System.nanoTime() - startNanos) / 1e9));
+        return result;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -1,39 +1,114 @@
 package com.smartlpd.service;
 
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+// HTTP engine: delegates to the Python ML service (ml-service/app.py)
 @Service
-public class MLService {
+@ConditionalOnProperty(name = "ml.engine", havingValue = "http", matchIfMissing = true)
+public class MLService implements PlateRecognitionEngine {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESULT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final int UPLOAD_CHUNK_SIZE = 16 * 1024;
+
+    // Pooled direct buffers for streamed uploads; Netty releases them once written to the socket
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
 
     private final WebClient webClient;
+    private final MLServiceResilience resilience;
+    private final Duration healthTimeout;
+    private final long healthIntervalMs;
+    private ScheduledExecutorService healthProbe;
+
+    public MLService(@Value("${ml.service.url:http://localhost:5000}") String mlServiceUrl,
+                     @Value("${ml.client.max-connections:50}") int maxConnections,
+                     @Value("${ml.client.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+                     @Value("${ml.client.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+                     @Value("${ml.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+                     @Value("${ml.health.timeout-ms:2000}") long healthTimeoutMs,
+                     @Value("${ml.health.interval-ms:10000}") long healthIntervalMs,
+                     MLServiceResilience resilience) {
+        // Bounded pool: at most maxConnections calls in flight, at most pendingAcquireMaxCount
+        // waiting for a connection; anything beyond that is rejected instead of queueing forever
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("ml-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
 
-    public MLService(@Value("${ml.service.url:http://localhost:5000}") String mlServiceUrl) {
+        this.resilience = resilience;
+        this.healthTimeout = Duration.ofMillis(healthTimeoutMs);
+        this.healthIntervalMs = healthIntervalMs;
         this.webClient = WebClient.builder()
                 .baseUrl(mlServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 
-    public Map<String, Object> detectLicensePlate(String imageData) {
-        try {
-            return webClient.post()
-                    .uri("/detect")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(Map.of("imageData", imageData))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block(); // Use block() for simplicity instead of Mono
-        } catch (Exception e) {
-            return Map.of(
-                    "success", false,
-                    "license_plate", "SERVICE_UNAVAILABLE",
-                    "confidence", 0.0
-            );
+    @Override
+    public Mono<Map<String, Object>> detectLicensePlate(String imageData) {
+        if (imageData == null) {
+            return Mono.just(serviceUnavailable());
         }
+        return resilience.protect(() -> webClient.post()
+                        .uri("/detect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("imageData", imageData))
+                        .retrieve()
+                        .bodyToMono(RESULT_TYPE))
+                .onErrorReturn(serviceUnavailable());
+    }
+
+    // Streams raw image bytes to the ML service without base64 or JSON encoding
+    @Override
+    public Mono<Map<String, Object>> detectLicensePlate(Callable<InputStream> imageStream, long contentLength) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(imageStream, bufferFactory, UPLOAD_CHUNK_SIZE)
+                .subscribeOn(Schedulers.boundedElastic()); // InputStream reads block; keep them off the event loop
+
+        return resilience.protect(() -> webClient.post()
+                        .uri("/detect/raw")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .headers(headers -> {
+                            if (contentLength > 0) {
+                                headers.setContentLength(contentLength);
+                            }
+                        })
+                        .body(BodyInserters.fromDataBuffers(body))
+                        .retrieve()
+                        .bodyToMono(RESULT_TYPE))
+                .onErrorReturn(serviceUnavailable());
     }
 
     public boolean isServiceHealthy() {
@@ -42,10 +117,49 @@ public class MLService {
                     .uri("/health")
                     .retrieve()
                     .bodyToMono(String.class)
-                    .block();
+                    .block(healthTimeout);
             return response != null;
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // The probe is the only way an open circuit closes, so it gets its own thread rather than the shared
+    // @Scheduled one, where a long overdue sweep or rollup backfill would keep detection on mock data
+    @PostConstruct
+    public void startHealthProbe() {
+        healthProbe = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthProbe.scheduleWithFixedDelay(this::probeHealth, healthIntervalMs, healthIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopHealthProbe() {
+        if (healthProbe != null) {
+            healthProbe.shutdownNow();
+        }
+    }
+
+    // Health drives the circuit breaker, instead of probing per request
+    public void probeHealth() {
+        resilience.recordHealthProbe(isServiceHealthy());
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(resilience.getStats());
+        stats.put("engine", "http");
+        return stats;
+    }
+
+    private static Map<String, Object> serviceUnavailable() {
+        return Map.of(
+                "success", false,
+                "license_plate", "SERVICE_UNAVAILABLE",
+                "confidence", 0.0
+        );
+    }
+}
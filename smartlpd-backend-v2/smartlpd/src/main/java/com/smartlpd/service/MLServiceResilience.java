@@ -0,0 +1,133 @@
+package com.smartlpd.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Circuit breaker, bulkhead and adaptive timeout for calls to the ML service.
+// The circuit opens after consecutive failures or a failed health probe, and only a healthy
+// probe closes it again; while open, calls fail immediately instead of waiting on timeouts.
+@Component
+@ConditionalOnProperty(name = "ml.engine", havingValue = "http", matchIfMissing = true)
+public class MLServiceResilience {
+
+    public enum CircuitState { CLOSED, OPEN }
+
+    public static class MLCallRejectedException extends RuntimeException {
+        public MLCallRejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final int failureThreshold;
+    private final int maxConcurrentCalls;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final double timeoutMultiplier;
+
+    private final Semaphore bulkhead;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder shortCircuitedCalls = new LongAdder();
+    private final LongAdder timedOutCalls = new LongAdder();
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private volatile double latencyEwmaMs = -1;
+
+    public MLServiceResilience(@Value("${ml.resilience.failure-threshold:5}") int failureThreshold,
+                               @Value("${ml.resilience.max-concurrent-calls:32}") int maxConcurrentCalls,
+                               @Value("${ml.resilience.min-timeout-ms:2000}") long minTimeoutMs,
+                               @Value("${ml.resilience.max-timeout-ms:30000}") long maxTimeoutMs,
+                               @Value("${ml.resilience.timeout-multiplier:4.0}") double timeoutMultiplier) {
+        this.failureThreshold = failureThreshold;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (state == CircuitState.OPEN) {
+                shortCircuitedCalls.increment();
+                return Mono.error(new MLCallRejectedException("ML service circuit is open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                rejectedCalls.increment();
+                return Mono.error(new MLCallRejectedException("Too many concurrent ML calls"));
+            }
+
+            long start = System.nanoTime();
+            Duration timeout = currentTimeout();
+            return Mono.defer(call)
+                    .timeout(timeout)
+                    .doOnSuccess(result -> recordSuccess((System.nanoTime() - start) / 1_000_000))
+                    .doOnError(this::recordFailure)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    public void recordHealthProbe(boolean healthy) {
+        if (healthy) {
+            consecutiveFailures.set(0);
+            state = CircuitState.CLOSED;
+        } else {
+            state = CircuitState.OPEN;
+        }
+    }
+
+    // Timeout tracks recent latency: a multiple of the moving average, clamped to [min, max]
+    public Duration currentTimeout() {
+        if (latencyEwmaMs < 0) {
+            return Duration.ofMillis(maxTimeoutMs);
+        }
+        long adaptive = (long) (latencyEwmaMs * timeoutMultiplier);
+        return Duration.ofMillis(Math.max(minTimeoutMs, Math.min(maxTimeoutMs, adaptive)));
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("circuitState", state.name());
+        stats.put("inFlightCalls", maxConcurrentCalls - bulkhead.availablePermits());
+        stats.put("maxConcurrentCalls", maxConcurrentCalls);
+        stats.put("consecutiveFailures", consecutiveFailures.get());
+        stats.put("latencyAverageMs", Math.max(latencyEwmaMs, 0));
+        stats.put("currentTimeoutMs", currentTimeout().toMillis());
+        stats.put("rejectedCalls", rejectedCalls.sum());
+        stats.put("shortCircuitedCalls", shortCircuitedCalls.sum());
+        stats.put("timedOutCalls", timedOutCalls.sum());
+        return stats;
+    }
+
+    private void recordSuccess(long latencyMs) {
+        consecutiveFailures.set(0);
+        double previous = latencyEwmaMs;
+        latencyEwmaMs = previous < 0 ? latencyMs : previous + LATENCY_SMOOTHING * (latencyMs - previous);
+    }
+
+    private void recordFailure(Throwable error) {
+        if (error instanceof TimeoutException) {
+            timedOutCalls.increment();
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            state = CircuitState.OPEN;
+        }
+    }
+}
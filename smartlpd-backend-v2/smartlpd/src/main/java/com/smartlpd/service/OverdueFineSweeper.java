@@ -0,0 +1,133 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.FineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Flags UNPAID fines whose due date has passed (optionally adding a late fee) with chunked bulk
+// UPDATEs. Each run scans only the unflagged UNPAID slice of the index, so fines issued with an
+// old violation date or reopened after their due date are picked up by the next run.
+@Component
+public class OverdueFineSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueFineSweeper.class);
+
+    private final FineRepository fineRepository;
+    private final FineLookupCache fineLookupCache;
+    private final FineStatistics fineStatistics;
+    private final FineEventBroadcaster fineEventBroadcaster;
+    private final RollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final double lateFee;
+
+    private long runs;
+    private long totalFlagged;
+    private LocalDateTime lastRunAt;
+    private long lastRunFlagged;
+    private long lastRunChunks;
+    private long lastRunMillis;
+
+    public OverdueFineSweeper(FineRepository fineRepository,
+                              FineLookupCache fineLookupCache,
+                              FineStatistics fineStatistics,
+                              FineEventBroadcaster fineEventBroadcaster,
+                              RollupService rollupService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${fines.overdue.enabled:true}") boolean enabled,
+                              @Value("${fines.overdue.chunk-size:1000}") int chunkSize,
+                              @Value("${fines.overdue.late-fee:0}") double lateFee) {
+        this.fineRepository = fineRepository;
+        this.fineLookupCache = fineLookupCache;
+        this.fineStatistics = fineStatistics;
+        this.fineEventBroadcaster = fineEventBroadcaster;
+        this.rollupService = rollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.lateFee = lateFee;
+    }
+
+    @Scheduled(initialDelayString = "${fines.overdue.initial-delay-ms:60000}",
+            fixedDelayString = "${fines.overdue.interval-ms:3600000}")
+    public synchronized void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long flagged = 0;
+        long chunks = 0;
+        Set<String> plates = new HashSet<>();
+
+        // Each chunk is its own short transaction; rows flagged by an earlier chunk drop out of the query
+        while (true) {
+            List<Object[]> rows = fineRepository.findNewlyOverdue(FineStatus.UNPAID, now, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add(((Number) row[0]).longValue());
+                plates.add((String) row[1]);
+            }
+            Integer updated = transactionTemplate.execute(status ->
+                    fineRepository.markOverdue(ids, FineStatus.UNPAID, lateFee, now));
+            flagged += updated == null ? 0 : updated;
+            chunks++;
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+
+        // Bulk UPDATEs bypass FineChangedEvent, so refresh what depends on the changed rows here
+        plates.forEach(fineLookupCache::invalidate);
+        if (flagged > 0) {
+            // A late fee changes amounts, which the counters and rollups sum
+            if (lateFee != 0) {
+                fineStatistics.reconcile();
+                rollupService.backfill();
+            }
+            fineEventBroadcaster.onOverdueSweep(flagged);
+        }
+
+        runs++;
+        totalFlagged += flagged;
+        lastRunAt = now;
+        lastRunFlagged = flagged;
+        lastRunChunks = chunks;
+        lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+        if (flagged > 0) {
+            log.info("Overdue sweep flagged {} fines in {} chunks ({} ms)", flagged, chunks, lastRunMillis);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lateFee", lateFee);
+        stats.put("runs", runs);
+        stats.put("totalFlagged", totalFlagged);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunFlagged", lastRunFlagged);
+        stats.put("lastRunChunks", lastRunChunks);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+}
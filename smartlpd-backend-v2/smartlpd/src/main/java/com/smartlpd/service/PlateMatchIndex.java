@@ -0,0 +1,203 @@
+package com.smartlpd.service;
+
+import com.smartlpd.repository.DetectionHistoryRepository;
+import com.smartlpd.repository.FineRepository;
+import com.smartlpd.util.PlateUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fuzzy lookup over every known plate (fines and detection history). Plates live in a BK-tree keyed
+// by an edit distance where OCR look-alikes (0/O, 1/I, 8/B, ...) cost half a normal edit, so a
+// misread plate finds its real counterpart without scanning the whole set.
+@Component
+public class PlateMatchIndex {
+
+    // Integer costs keep the BK-tree metric exact: a look-alike substitution is 1, any other edit is 2
+    static final int CONFUSION_COST = 1;
+    static final int EDIT_COST = 2;
+
+    private static final String[] CONFUSION_GROUPS = {"0ODQ", "1IL", "8B", "5S", "2Z", "6G"};
+    private static final int[] CONFUSION_CLASS = new int[128];
+
+    static {
+        for (int group = 0; group < CONFUSION_GROUPS.length; group++) {
+            for (char c : CONFUSION_GROUPS[group].toCharArray()) {
+                CONFUSION_CLASS[c] = group + 1;
+            }
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(PlateMatchIndex.class);
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private DetectionHistoryRepository detectionHistoryRepository;
+
+    @Value("${plates.match.max-distance:4}")
+    private int maxDistanceLimit;
+
+    private final Object insertLock = new Object();
+    private volatile Node root;
+    private final LongAdder size = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public static class Candidate {
+        private final String licensePlateNumber;
+        private final int distance;
+
+        Candidate(String licensePlateNumber, int distance) {
+            this.licensePlateNumber = licensePlateNumber;
+            this.distance = distance;
+        }
+
+        public String getLicensePlateNumber() { return licensePlateNumber; }
+        public int getDistance() { return distance; }
+    }
+
+    private static final class Node {
+        final String key;
+        final String licensePlateNumber;
+        // Readers walk the tree without the insert lock, so children must be safely published
+        final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        Node(String key, String licensePlateNumber) {
+            this.key = key;
+            this.licensePlateNumber = licensePlateNumber;
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        fineRepository.findDistinctLicensePlateNumbers().forEach(this::add);
+        detectionHistoryRepository.findDistinctLicensePlateNumbers().forEach(this::add);
+        log.info("Plate match index loaded with {} plates", size.sum());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        if (event.getType() == FineChangedEvent.Type.CREATED) {
+            add(event.getLicensePlateNumber());
+        }
+    }
+
+    // Idempotent; the first spelling seen for a normalized plate is the one returned to callers
+    public void add(String licensePlateNumber) {
+        String key = PlateUtils.normalize(licensePlateNumber);
+        if (key.isEmpty()) {
+            return;
+        }
+        synchronized (insertLock) {
+            if (root == null) {
+                root = new Node(key, licensePlateNumber);
+                size.increment();
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int d = distance(key, node.key);
+                if (d == 0) {
+                    return;
+                }
+                Node child = node.children.get(d);
+                if (child == null) {
+                    node.children.put(d, new Node(key, licensePlateNumber));
+                    size.increment();
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+
+    // Ranked by distance, closest first; distance is in half-edits (a look-alike swap counts 1)
+    public List<Candidate> findCandidates(String licensePlateNumber, int maxDistance, int limit) {
+        long start = System.nanoTime();
+        String key = PlateUtils.normalize(licensePlateNumber);
+        int radius = Math.min(maxDistance, maxDistanceLimit);
+        List<Candidate> matches = new ArrayList<>();
+        Node top = root;
+        if (!key.isEmpty() && top != null && radius >= 0) {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(top);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int d = distance(key, node.key);
+                if (d <= radius) {
+                    matches.add(new Candidate(node.licensePlateNumber, d));
+                }
+                // Triangle inequality: only subtrees at distance d +- radius can hold a match
+                for (int i = Math.max(1, d - radius); i <= d + radius; i++) {
+                    Node child = node.children.get(i);
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+            matches.sort(Comparator.comparingInt(Candidate::getDistance)
+                    .thenComparing(Candidate::getLicensePlateNumber));
+        }
+        lookups.increment();
+        lookupNanos.add(System.nanoTime() - start);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long count = lookups.sum();
+        stats.put("plates", size.sum());
+        stats.put("lookups", count);
+        stats.put("avgLookupMicros", count == 0 ? 0 : lookupNanos.sum() / count / 1000);
+        return stats;
+    }
+
+    // Weighted Levenshtein over normalized plates
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j * EDIT_COST;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i * EDIT_COST;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + substitutionCost(ca, b.charAt(j - 1));
+                int deletion = previous[j] + EDIT_COST;
+                int insertion = current[j - 1] + EDIT_COST;
+                current[j] = Math.min(substitution, Math.min(deletion, insertion));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static int substitutionCost(char a, char b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a < 128 && b < 128 && CONFUSION_CLASS[a] != 0 && CONFUSION_CLASS[a] == CONFUSION_CLASS[b]) {
+            return CONFUSION_COST;
+        }
+        return EDIT_COST;
+    }
+}
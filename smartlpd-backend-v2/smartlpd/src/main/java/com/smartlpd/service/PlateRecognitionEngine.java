@@ -0,0 +1,18 @@
+package com.smartlpd.service;
+
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+// Recognizes a license plate in an image. Results use the ML service's response shape:
+// success, license_plate, confidence, method, processing_time. Selected with ml.engine (http | local).
+public interface PlateRecognitionEngine {
+
+    Mono<Map<String, Object>> detectLicensePlate(String imageData);
+
+    Mono<Map<String, Object>> detectLicensePlate(Callable<InputStream> imageStream, long contentLength);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,225 @@
+package com.smartlpd.service;
+
+import com.smartlpd.dto.FineCursor;
+import com.smartlpd.repository.FineRepository;
+import com.smartlpd.util.PlateUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Substring/prefix search over fine plates. Every distinct normalized plate is indexed under all of
+// its 1-3 character n-grams; a query intersects the posting lists of its own n-grams and verifies
+// the few surviving plates, instead of the LIKE '%term%' full scan MySQL would do.
+@Component
+public class PlateSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PlateSearchIndex.class);
+    private static final int MAX_GRAM = 3;
+    private static final int[] EMPTY = new int[0];
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public static final class Hit {
+        private final long fineId;
+        private final LocalDateTime violationDate;
+
+        Hit(long fineId, LocalDateTime violationDate) {
+            this.fineId = fineId;
+            this.violationDate = violationDate;
+        }
+
+        public long getFineId() { return fineId; }
+        public LocalDateTime getViolationDate() { return violationDate; }
+    }
+
+    // Newest first, ties broken by id, matching the /api/fines keyset order
+    private static final Comparator<Hit> RECENCY = Comparator.comparing(Hit::getViolationDate)
+            .thenComparingLong(Hit::getFineId).reversed();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> plates = new ArrayList<>();
+    private final List<List<Hit>> finesByPlate = new ArrayList<>();
+    private final Map<String, Integer> plateIds = new HashMap<>();
+    // n-gram -> ascending plate ids; plate ids are handed out in order, so appends keep them sorted
+    private final Map<String, int[]> postings = new HashMap<>();
+    private final Map<String, Integer> postingSizes = new HashMap<>();
+    private long fineCount;
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = fineRepository.streamPlateIndexRows()) {
+                rows.forEach(row -> add(((Number) row[0]).longValue(), (String) row[1], (LocalDateTime) row[2]));
+            }
+        });
+        log.info("Plate search index loaded with {} fines over {} plates", fineCount, plates.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        if (event.getType() == FineChangedEvent.Type.CREATED) {
+            add(event.getFineId(), event.getLicensePlateNumber(), event.getViolationDate());
+        }
+    }
+
+    public void add(long fineId, String licensePlateNumber, LocalDateTime violationDate) {
+        String plate = PlateUtils.normalize(licensePlateNumber);
+        if (plate.isEmpty() || violationDate == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer plateId = plateIds.get(plate);
+            if (plateId == null) {
+                plateId = plates.size();
+                plates.add(plate);
+                finesByPlate.add(new ArrayList<>(2));
+                plateIds.put(plate, plateId);
+                for (String gram : grams(plate)) {
+                    append(gram, plateId);
+                }
+            }
+            finesByPlate.get(plateId).add(new Hit(fineId, violationDate));
+            fineCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Fines on plates containing (or starting with) the term, newest first, at most limit after the cursor
+    public List<Hit> search(String term, boolean prefix, FineCursor after, int limit) {
+        String query = PlateUtils.normalize(term);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            // Bounded heap keeps the top `limit` hits without sorting every match
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RECENCY.reversed());
+            for (int plateId : candidatePlates(query)) {
+                String plate = plates.get(plateId);
+                if (prefix ? !plate.startsWith(query) : !plate.contains(query)) {
+                    continue;
+                }
+                for (Hit hit : finesByPlate.get(plateId)) {
+                    if (after != null && !isAfter(hit, after)) {
+                        continue;
+                    }
+                    top.offer(hit);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RECENCY);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("fines", fineCount);
+            stats.put("plates", plates.size());
+            stats.put("grams", postings.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidatePlates(String query) {
+        // Longest grams are the most selective; intersect from the shortest posting list up
+        int gramLength = Math.min(MAX_GRAM, query.length());
+        List<String> queryGrams = new ArrayList<>();
+        for (int i = 0; i + gramLength <= query.length(); i++) {
+            queryGrams.add(query.substring(i, i + gramLength));
+        }
+        queryGrams.sort(Comparator.comparingInt(gram -> postingSizes.getOrDefault(gram, 0)));
+
+        int[] result = null;
+        for (String gram : queryGrams) {
+            int[] posting = postings.getOrDefault(gram, EMPTY);
+            int size = postingSizes.getOrDefault(gram, 0);
+            result = result == null ? Arrays.copyOf(posting, size) : intersect(result, posting, size);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? EMPTY : result;
+    }
+
+    private void append(String gram, int plateId) {
+        int size = postingSizes.getOrDefault(gram, 0);
+        int[] posting = postings.getOrDefault(gram, EMPTY);
+        // The same gram can repeat within a plate ("AAA"); ids only need to appear once
+        if (size > 0 && posting[size - 1] == plateId) {
+            return;
+        }
+        if (size == posting.length) {
+            posting = Arrays.copyOf(posting, Math.max(4, size * 2));
+            postings.put(gram, posting);
+        }
+        posting[size] = plateId;
+        postingSizes.put(gram, size + 1);
+    }
+
+    private static int[] intersect(int[] a, int[] b, int bSize) {
+        int[] out = new int[Math.min(a.length, bSize)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < bSize) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static List<String> grams(String plate) {
+        List<String> grams = new ArrayList<>();
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int i = 0; i + length <= plate.length(); i++) {
+                grams.add(plate.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static boolean isAfter(Hit hit, FineCursor cursor) {
+        int byDate = hit.getViolationDate().compareTo(cursor.getViolationDate());
+        return byDate < 0 || (byDate == 0 && hit.getFineId() < cursor.getId());
+    }
+}
@@ -0,0 +1,278 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.DetectionHistoryRepository;
+import com.smartlpd.repository.FineRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Time-bucketed rollups kept in memory: fines per day x violation type x issuer (issued count and
+// amount by violation date, paid count and revenue by payment date) and detections per hour.
+// Backfilled from MySQL for the retention window, then maintained from fine and detection events,
+// so range queries never run GROUP BYs on the live tables.
+@Component
+public class RollupService {
+
+    public enum GroupBy { NONE, VIOLATION_TYPE, ISSUER }
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private DetectionHistoryRepository detectionHistoryRepository;
+
+    @Value("${rollups.retention-days:400}")
+    private int retentionDays;
+
+    private static final class FineKey {
+        final String violationType;
+        final String issuedByUsername;
+
+        FineKey(String violationType, String issuedByUsername) {
+            this.violationType = violationType == null ? "UNKNOWN" : violationType;
+            this.issuedByUsername = issuedByUsername == null ? "System" : issuedByUsername;
+        }
+
+        String group(GroupBy groupBy) {
+            return groupBy == GroupBy.VIOLATION_TYPE ? violationType : groupBy == GroupBy.ISSUER ? issuedByUsername : "ALL";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FineKey && violationType.equals(((FineKey) o).violationType)
+                    && issuedByUsername.equals(((FineKey) o).issuedByUsername);
+        }
+
+        @Override
+        public int hashCode() {
+            return violationType.hashCode() * 31 + issuedByUsername.hashCode();
+        }
+    }
+
+    private static final class FineTotals {
+        long issued;
+        double issuedAmount;
+        long paid;
+        double revenue;
+
+        void add(FineTotals other) {
+            issued += other.issued;
+            issuedAmount += other.issuedAmount;
+            paid += other.paid;
+            revenue += other.revenue;
+        }
+    }
+
+    // Changes applied to the live maps while backfill() rebuilds them. Fine events are replayed onto the
+    // rebuilt map under fineLock; detections are replayed when the capture closes, and any detection
+    // recorded after that goes straight to the new map.
+    private static final class Capture {
+        final List<FineChangedEvent> fineEvents = new ArrayList<>();
+        private final List<LocalDateTime> detectionHours = new ArrayList<>();
+        private boolean closed;
+
+        // False once closed; the caller then records into the current (rebuilt) map itself
+        synchronized boolean captureDetection(LocalDateTime hour, Map<LocalDateTime, LongAdder> live) {
+            if (closed) {
+                return false;
+            }
+            increment(live, hour);
+            detectionHours.add(hour);
+            return true;
+        }
+
+        synchronized void close(Runnable swap, Map<LocalDateTime, LongAdder> rebuilt) {
+            swap.run();
+            detectionHours.forEach(hour -> increment(rebuilt, hour));
+            closed = true;
+        }
+    }
+
+    // Fine changes are rare, so one lock over the day map is enough; detections are hot and use adders.
+    // Both maps are replaced wholesale by backfill(), never cleared in place.
+    private final Object fineLock = new Object();
+    private TreeMap<LocalDate, Map<FineKey, FineTotals>> fineDays = new TreeMap<>();
+    private volatile ConcurrentSkipListMap<LocalDateTime, LongAdder> detectionHours = new ConcurrentSkipListMap<>();
+    private volatile Capture capture;
+    private volatile LocalDateTime lastBackfillAt;
+
+    @PostConstruct
+    public void load() {
+        backfill();
+    }
+
+    // Rebuilds every bucket inside the retention window from the source tables into new maps, replays
+    // the changes applied while the queries ran, then swaps the maps in; queries never see a gap
+    public synchronized void backfill() {
+        long start = System.nanoTime();
+        Capture rebuild = new Capture();
+        synchronized (fineLock) {
+            capture = rebuild;
+        }
+        LocalDateTime since = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+
+        TreeMap<LocalDate, Map<FineKey, FineTotals>> fines = new TreeMap<>();
+        for (Object[] row : fineRepository.rollupIssuedByDay(since)) {
+            FineTotals totals = totalsFor(fines, (LocalDate) row[0], (String) row[1], (String) row[2]);
+            totals.issued += ((Number) row[3]).longValue();
+            totals.issuedAmount += row[4] == null ? 0 : ((Number) row[4]).doubleValue();
+        }
+        // Payment time is not stored separately; updatedAt is the last change, which for a PAID fine is the payment
+        for (Object[] row : fineRepository.rollupPaidByDay(FineStatus.PAID, since)) {
+            FineTotals totals = totalsFor(fines, (LocalDate) row[0], (String) row[1], (String) row[2]);
+            totals.paid += ((Number) row[3]).longValue();
+            totals.revenue += row[4] == null ? 0 : ((Number) row[4]).doubleValue();
+        }
+
+        ConcurrentSkipListMap<LocalDateTime, LongAdder> detections = new ConcurrentSkipListMap<>();
+        for (Object[] row : detectionHistoryRepository.rollupByHour(since)) {
+            LocalDateTime hour = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+            detections.computeIfAbsent(hour, h -> new LongAdder()).add(((Number) row[2]).longValue());
+        }
+
+        // Detection history is written behind, so a detection recorded during the rebuild is rarely in the
+        // query yet; replaying it keeps the live count instead of dropping it
+        rebuild.close(() -> detectionHours = detections, detections);
+        synchronized (fineLock) {
+            rebuild.fineEvents.forEach(event -> apply(fines, event));
+            fineDays = fines;
+            capture = null;
+        }
+        lastBackfillAt = LocalDateTime.now();
+        log.info("Rollups backfilled: {} fine days, {} detection hours in {} ms",
+                fines.size(), detections.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        synchronized (fineLock) {
+            apply(fineDays, event);
+            if (capture != null) {
+                capture.fineEvents.add(event);
+            }
+        }
+    }
+
+    public void recordDetection(LocalDateTime detectionTime) {
+        LocalDateTime hour = detectionTime.truncatedTo(ChronoUnit.HOURS);
+        Capture rebuild = capture;
+        if (rebuild == null || !rebuild.captureDetection(hour, detectionHours)) {
+            increment(detectionHours, hour);
+        }
+    }
+
+    private static void apply(TreeMap<LocalDate, Map<FineKey, FineTotals>> days, FineChangedEvent event) {
+        double amount = event.getAmount() == null ? 0 : event.getAmount();
+        if (event.getType() == FineChangedEvent.Type.CREATED && event.getViolationDate() != null) {
+            FineTotals totals = totalsFor(days, event.getViolationDate().toLocalDate(),
+                    event.getViolationType(), event.getIssuedByUsername());
+            totals.issued++;
+            totals.issuedAmount += amount;
+        }
+        // Payments count on the day they happen; reversing a payment is booked on the day it is reversed
+        int paidDelta = (event.getStatus() == FineStatus.PAID ? 1 : 0)
+                - (event.getPreviousStatus() == FineStatus.PAID ? 1 : 0);
+        if (paidDelta != 0) {
+            FineTotals totals = totalsFor(days, event.getOccurredAt().toLocalDate(),
+                    event.getViolationType(), event.getIssuedByUsername());
+            totals.paid += paidDelta;
+            totals.revenue += paidDelta * amount;
+        }
+    }
+
+    private static void increment(Map<LocalDateTime, LongAdder> hours, LocalDateTime hour) {
+        hours.computeIfAbsent(hour, h -> new LongAdder()).increment();
+    }
+
+    // One row per day (and group) with activity in [from, to]
+    public List<Map<String, Object>> queryFines(LocalDate from, LocalDate to, GroupBy groupBy) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        synchronized (fineLock) {
+            for (Map.Entry<LocalDate, Map<FineKey, FineTotals>> day : fineDays.subMap(from, true, to, true).entrySet()) {
+                Map<String, FineTotals> groups = new TreeMap<>();
+                day.getValue().forEach((key, totals) ->
+                        groups.computeIfAbsent(key.group(groupBy), g -> new FineTotals()).add(totals));
+                groups.forEach((group, totals) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("day", day.getKey());
+                    if (groupBy != GroupBy.NONE) {
+                        row.put("group", group);
+                    }
+                    row.put("issued", totals.issued);
+                    row.put("issuedAmount", round(totals.issuedAmount));
+                    row.put("paid", totals.paid);
+                    row.put("revenue", round(totals.revenue));
+                    rows.add(row);
+                });
+            }
+        }
+        return rows;
+    }
+
+    // Hourly detection counts in [from, to); daily=true sums them per day
+    public List<Map<String, Object>> queryDetections(LocalDateTime from, LocalDateTime to, boolean daily) {
+        NavigableMap<LocalDateTime, LongAdder> range = detectionHours.subMap(from.truncatedTo(ChronoUnit.HOURS), true, to, false);
+        Map<Object, Long> buckets = new TreeMap<>();
+        range.forEach((hour, count) -> buckets.merge(daily ? hour.toLocalDate() : hour, count.sum(), Long::sum));
+
+        List<Map<String, Object>> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(daily ? "day" : "hour", bucket);
+            row.put("detections", count);
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (fineLock) {
+            stats.put("fineDays", fineDays.size());
+        }
+        stats.put("detectionHours", detectionHours.size());
+        stats.put("retentionDays", retentionDays);
+        stats.put("lastBackfillAt", lastBackfillAt);
+        return stats;
+    }
+
+    @Scheduled(cron = "${rollups.prune-cron:0 15 3 * * *}")
+    public void prune() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        synchronized (fineLock) {
+            fineDays.headMap(cutoff).clear();
+        }
+        detectionHours.headMap(cutoff.atStartOfDay()).clear();
+    }
+
+    private static FineTotals totalsFor(TreeMap<LocalDate, Map<FineKey, FineTotals>> days, LocalDate day,
+                                        String violationType, String issuedByUsername) {
+        return days.computeIfAbsent(day, d -> new HashMap<>())
+                .computeIfAbsent(new FineKey(violationType, issuedByUsername), k -> new FineTotals());
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.FineRepository;
+import com.smartlpd.util.PlateUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory index of plates with UNPAID fines (normalized plate -> unpaid count). Loaded once at
+// startup and kept current from FineChangedEvent, so detections never query MySQL for it.
+@Component
+public class UnpaidFineWatchlist {
+
+    private static final Logger log = LoggerFactory.getLogger(UnpaidFineWatchlist.class);
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    private final ConcurrentHashMap<String, Integer> unpaidCounts = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    // Runs before the web server starts, so no detection sees a half-built index
+    @PostConstruct
+    public void load() {
+        for (Object[] row : fineRepository.countByLicensePlateNumberForStatus(FineStatus.UNPAID)) {
+            adjust((String) row[0], ((Number) row[1]).intValue());
+        }
+        log.info("Unpaid fine watchlist loaded with {} plates", unpaidCounts.size());
+    }
+
+    // After commit only: a rolled-back fine must not put a plate on the watchlist
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFineChanged(FineChangedEvent event) {
+        int delta = 0;
+        if (event.getPreviousStatus() == FineStatus.UNPAID) {
+            delta--;
+        }
+        if (event.getStatus() == FineStatus.UNPAID) {
+            delta++;
+        }
+        if (delta != 0) {
+            adjust(event.getLicensePlateNumber(), delta);
+        }
+    }
+
+    public int unpaidFineCount(String licensePlateNumber) {
+        lookups.increment();
+        Integer count = unpaidCounts.get(PlateUtils.normalize(licensePlateNumber));
+        if (count == null) {
+            return 0;
+        }
+        hits.increment();
+        return count;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("plates", unpaidCounts.size());
+        stats.put("lookups", lookups.sum());
+        stats.put("hits", hits.sum());
+        return stats;
+    }
+
+    private void adjust(String licensePlateNumber, int delta) {
+        String key = PlateUtils.normalize(licensePlateNumber);
+        if (key.isEmpty()) {
+            return;
+        }
+        // Returning null removes the entry once the plate has no unpaid fines left
+        unpaidCounts.compute(key, (plate, count) -> {
+            int updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartlpd.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartlpd.model.User;
+import com.smartlpd.model.UserRole;
+import com.smartlpd.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Immutable user snapshots for login and fine issuing, so the hot paths skip the users table.
+// Only hits are cached: a user registered after a failed lookup is found on the next try.
+// Anything that changes or deletes users must call invalidateAll(); the TTL bounds other drift.
+@Component
+public class UserCache {
+
+    public static final class CachedUser {
+        private final Long id;
+        private final String username;
+        private final UserRole role;
+        private final String passwordHash;
+
+        CachedUser(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.role = user.getRole();
+            this.passwordHash = user.getPassword();
+        }
+
+        public Long getId() { return id; }
+        public String getUsername() { return username; }
+        public UserRole getRole() { return role; }
+        public String getPasswordHash() { return passwordHash; }
+    }
+
+    private final UserRepository userRepository;
+    // "u:" + username for exact-username lookups, "l:" + login for username-or-email lookups
+    private final Cache<String, CachedUser> users;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${users.cache.max-entries:10000}") long maxEntries,
+                     @Value("${users.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CachedUser> findByUsername(String username) {
+        return Optional.ofNullable(users.get("u:" + username,
+                key -> userRepository.findByUsername(username).map(CachedUser::new).orElse(null)));
+    }
+
+    // A username match wins over another account's email, as the separate lookups did
+    public Optional<CachedUser> findByUsernameOrEmail(String login) {
+        return Optional.ofNullable(users.get("l:" + login, key -> {
+            List<User> matches = userRepository.findByUsernameOrEmail(login);
+            return matches.stream()
+                    .filter(user -> user.getUsername().equalsIgnoreCase(login))
+                    .findFirst()
+                    .or(() -> matches.stream().findFirst())
+                    .map(CachedUser::new)
+                    .orElse(null);
+        }));
+    }
+
+    public void invalidateAll() {
+        users.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = users.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", users.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartlpd.util;
+
+import java.time.Instant;
+
+// The verified claims the app uses from a token; expiresAt is null for tokens without exp
+public class JwtClaims {
+
+    private final String username;
+    private final String role;
+    private final Instant expiresAt;
+
+    public JwtClaims(String username, String role, Instant expiresAt) {
+        this.username = username;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
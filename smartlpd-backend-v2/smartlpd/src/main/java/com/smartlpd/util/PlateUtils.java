@@ -0,0 +1,21 @@
+package com.smartlpd.util;
+
+public final class PlateUtils {
+
+    private PlateUtils() {}
+
+    // Canonical form used by the in-memory plate indexes: upper case, letters and digits only
+    public static String normalize(String licensePlateNumber) {
+        if (licensePlateNumber == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(licensePlateNumber.length());
+        for (int i = 0; i < licensePlateNumber.length(); i++) {
+            char c = Character.toUpperCase(licensePlateNumber.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartlpd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Load test against a running backend. Start the app once normally and once built with
+// -Pvirtual-threads, then run each time and compare the reports:
+//   mvn test -Dtest=ThreadModelLoadTest -Dloadtest.baseUrl=http://localhost:8080
+@EnabledIfSystemProperty(named = "loadtest.baseUrl", matches = ".+")
+class ThreadModelLoadTest {
+
+    // 1x1 PNG, enough to exercise the full /api/detect round trip
+    private static final String TINY_PNG =
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+
+    private final String baseUrl = System.getProperty("loadtest.baseUrl");
+    private final int requestsPerLevel = Integer.getInteger("loadtest.requests", 2000);
+    private final String[] concurrencyLevels = System.getProperty("loadtest.concurrency", "50,200,800").split(",");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void detectEndpoint() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/detect"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"imageData\":\"" + TINY_PNG + "\"}"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        runLevels("/api/detect", request);
+    }
+
+    @Test
+    void fineCheckEndpoint() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/fines/check?licensePlateNumber=ABC123"))
+                .GET()
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        runLevels("/api/fines/check", request);
+    }
+
+    private void runLevels(String name, HttpRequest request) throws Exception {
+        for (String level : concurrencyLevels) {
+            int concurrency = Integer.parseInt(level.trim());
+            Report report = run(request, concurrency);
+            System.out.printf("%-18s concurrency=%-5d ok=%-6d failed=%-6d throughput=%.1f req/s p50=%dms p99=%dms%n",
+                    name, concurrency, report.ok, report.failed, report.throughput, report.p50, report.p99);
+            assertTrue(report.ok > 0, "No successful responses from " + name);
+        }
+    }
+
+    private Report run(HttpRequest request, int concurrency) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<Long>> futures = new ArrayList<>(requestsPerLevel);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requestsPerLevel; i++) {
+                futures.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+                    return response.statusCode() < 400 ? elapsedMs : -1L;
+                }));
+            }
+
+            List<Long> latencies = new ArrayList<>(requestsPerLevel);
+            int failed = 0;
+            for (Future<Long> future : futures) {
+                try {
+                    long latency = future.get();
+                    if (latency < 0) {
+                        failed++;
+                    } else {
+                        latencies.add(latency);
+                    }
+                } catch (Exception e) {
+                    failed++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Collections.sort(latencies);
+            return new Report(latencies.size(), failed, latencies.size() / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private record Report(int ok, int failed, double throughput, long p50, long p99) {}
+}
@@ -0,0 +1,73 @@
+package com.smartlpd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartlpd.dto.DetectionRequest;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Per-request heap allocation of the base64/JSON detect path vs the streamed binary upload path.
+//   mvn test -Dtest=UploadAllocationBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UploadAllocationBenchmarkTest {
+
+    private static final int IMAGE_SIZE = 4 * 1024 * 1024;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void streamedUploadAllocatesLessThanBase64Json() throws Exception {
+        byte[] image = new byte[IMAGE_SIZE];
+        new Random(42).nextBytes(image);
+        byte[] jsonBody = objectMapper.writeValueAsBytes(Map.of("imageData", Base64.getEncoder().encodeToString(image)));
+
+        long jsonBytes = measure(() -> {
+            // What /api/detect does: Jackson binds the String, MLService re-encodes it as JSON
+            DetectionRequest request = objectMapper.readValue(jsonBody, DetectionRequest.class);
+            objectMapper.writeValueAsBytes(Map.of("imageData", request.getImageData()));
+        });
+
+        long streamedBytes = measure(() ->
+            // What /api/detect/upload does: pooled chunks read from the request stream and released after writing
+            DataBufferUtils.readInputStream(() -> new ByteArrayInputStream(image), bufferFactory, 16 * 1024)
+                    .doOnNext(DataBufferUtils::release)
+                    .blockLast()
+        );
+
+        System.out.printf("Image %d KB: base64/JSON path %d KB/request, streamed path %d KB/request%n",
+                IMAGE_SIZE / 1024, jsonBytes / 1024, streamedBytes / 1024);
+        assertTrue(streamedBytes < jsonBytes);
+    }
+
+    private long measure(ThrowingRunnable body) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            body.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.run();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartlpd.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// H2 uses native sequences, so the MySQL-style sequence table is created by hand here
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idseq;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class IdSequenceInitializerTest {
+
+    private static final IdSequenceInitializer.SequenceTable LEGACY =
+            new IdSequenceInitializer.SequenceTable("legacy_seq", "legacy_rows", 50);
+
+    @Autowired
+    private IdSequenceInitializer initializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS legacy_rows");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS legacy_seq");
+        jdbcTemplate.execute("CREATE TABLE legacy_rows (id BIGINT AUTO_INCREMENT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE legacy_seq (next_val BIGINT)");
+        for (int i = 0; i < 7; i++) {
+            jdbcTemplate.update("INSERT INTO legacy_rows () VALUES ()");
+        }
+    }
+
+    @Test
+    void sequenceCreatedAtOneByHibernateIsRaisedPastExistingIds() {
+        jdbcTemplate.update("INSERT INTO legacy_seq (next_val) VALUES (1)");
+
+        assertEquals(57, initializer.repair(LEGACY));
+        assertEquals(57, nextVal());
+    }
+
+    @Test
+    void emptySequenceTableIsSeeded() {
+        assertEquals(57, initializer.repair(LEGACY));
+        assertEquals(57, nextVal());
+    }
+
+    @Test
+    void sequenceAlreadyAheadIsLeftAlone() {
+        jdbcTemplate.update("INSERT INTO legacy_seq (next_val) VALUES (500)");
+
+        assertEquals(500, initializer.repair(LEGACY));
+        assertEquals(500, nextVal());
+    }
+
+    @Test
+    void nativeSequencesAreSkipped() {
+        assertEquals(-1, initializer.repair(new IdSequenceInitializer.SequenceTable("no_such_seq", "legacy_rows", 50)));
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM legacy_seq", Long.class);
+    }
+}
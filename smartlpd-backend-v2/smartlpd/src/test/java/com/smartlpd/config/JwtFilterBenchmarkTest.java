@@ -0,0 +1,60 @@
+package com.smartlpd.config;
+
+import com.smartlpd.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Per-request token handling: the old three-parse path, one parse with the prebuilt parser,
+// and the filter's verified-token cache.
+//   mvn test -Dtest=JwtFilterBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtFilterBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0000";
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void comparePerRequestCost() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, new SimpleMeterRegistry(), 10_000, 300);
+        String token = jwtUtil.generateToken("officer1", "AUTHORITY");
+
+        double legacy = measure(() -> {
+            // What validateToken + extractUsername + extractRole did: a new key and parser per call
+            Claims claims = null;
+            for (int i = 0; i < 3; i++) {
+                claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                        .build().parseClaimsJws(token).getBody();
+            }
+            return claims.getSubject();
+        });
+        double singleParse = measure(() -> jwtUtil.parse(token).getUsername());
+        double cached = measure(() -> filter.resolve(token).username);
+
+        System.out.printf("three parses: %8.2f us/request%n", legacy);
+        System.out.printf("single parse: %8.2f us/request%n", singleParse);
+        System.out.printf("cached:       %8.2f us/request%n", cached);
+        assertEquals("officer1", filter.resolve(token).username);
+    }
+
+    private static double measure(Supplier<String> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertNotNull(request.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(request.get());
+        }
+        return (System.nanoTime() - start) / 1e3 / ITERATIONS;
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartlpd.service;
+
+import com.smartlpd.dto.AuthResponse;
+import com.smartlpd.dto.LoginRequest;
+import com.smartlpd.dto.RegisterRequest;
+import com.smartlpd.model.Fine;
+import com.smartlpd.model.UserRole;
+import com.smartlpd.repository.FineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an in-memory H2 database in place of MySQL
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private FineService fineService;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Test
+    void duplicateRegistrationIsReportedFromTheUniqueConstraints() {
+        assertTrue(authService.register(registration("officer7", "officer7@gov.ac.in")).isSuccess());
+
+        AuthResponse sameUsername = authService.register(registration("officer7", "other@gov.ac.in"));
+        assertFalse(sameUsername.isSuccess());
+        assertEquals("Username already exists", sameUsername.getMessage());
+
+        AuthResponse sameEmail = authService.register(registration("officer8", "officer7@gov.ac.in"));
+        assertFalse(sameEmail.isSuccess());
+        assertEquals("Email already exists", sameEmail.getMessage());
+    }
+
+    @Test
+    void loginByUsernameOrEmailAndIssueFineWithoutLoadingTheIssuer() {
+        assertTrue(authService.register(registration("officer9", "officer9@gov.ac.in")).isSuccess());
+
+        assertTrue(authService.login(login("officer9")).isSuccess());
+        assertTrue(authService.login(login("officer9@gov.ac.in")).isSuccess());
+        assertFalse(authService.login(login("nobody")).isSuccess());
+
+        Fine fine = fineService.createFine("USR001", 50.0, "PARKING", null, LocalDateTime.now(), "officer9");
+        Fine stored = fineRepository.findById(fine.getId()).orElseThrow();
+        assertEquals("officer9", stored.getIssuedByUsername());
+        assertNotNull(stored.getIssuedBy());
+    }
+
+    private static RegisterRequest registration(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        request.setFullName("Test Officer");
+        request.setRole(UserRole.AUTHORITY);
+        return request;
+    }
+
+    private static LoginRequest login(String usernameOrEmail) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(usernameOrEmail);
+        request.setPassword("password123");
+        return request;
+    }
+}
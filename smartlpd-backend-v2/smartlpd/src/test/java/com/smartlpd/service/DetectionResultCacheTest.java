@@ -0,0 +1,66 @@
+package com.smartlpd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DetectionResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sweepDeletesExpiredFilesAndEvictsTheOldestPastTheLimit() throws Exception {
+        Instant now = Instant.now();
+        Path expired = entry(key(100), now.minusSeconds(700));
+        Path leftoverTemp = file(key(101) + "8123456789.tmp", now.minusSeconds(700));
+        // Not written by the cache, so never touched however old it is
+        Path foreign = file("notes.txt", now.minusSeconds(700));
+        Path foreignJson = file("settings.json", now.minusSeconds(700));
+        for (int i = 0; i < 12; i++) {
+            entry(key(i), now.minusSeconds(100 - i));
+        }
+
+        DetectionResultCache cache = new DetectionResultCache(100, 600, directory.toString(), 10);
+        cache.init();
+
+        // Trimmed to 90% of the limit, oldest first
+        assertFalse(Files.exists(expired));
+        assertFalse(Files.exists(leftoverTemp));
+        assertTrue(Files.exists(foreign));
+        assertTrue(Files.exists(foreignJson));
+        for (int i = 0; i < 3; i++) {
+            assertFalse(Files.exists(directory.resolve(key(i) + ".json")));
+        }
+        for (int i = 3; i < 12; i++) {
+            assertTrue(Files.exists(directory.resolve(key(i) + ".json")));
+        }
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(9L, stats.get("diskEntries"));
+        assertEquals(3L, stats.get("diskEvictions"));
+    }
+
+    private Path entry(String key, Instant modified) throws Exception {
+        return file(key + ".json", modified);
+    }
+
+    private Path file(String name, Instant modified) throws Exception {
+        Path file = Files.writeString(directory.resolve(name), "{\"success\":true}");
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    // Same shape as a real key: 64 lower-case hex digits
+    private static String key(int i) {
+        return String.format("%064x", i);
+    }
+}
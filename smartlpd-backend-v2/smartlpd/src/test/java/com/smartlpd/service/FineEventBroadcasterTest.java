@@ -0,0 +1,84 @@
+package com.smartlpd.service;
+
+import com.smartlpd.dto.BulkFineResult;
+import com.smartlpd.dto.FineRequest;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an in-memory H2 database in place of MySQL
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class FineEventBroadcasterTest {
+
+    @Autowired
+    private FineService fineService;
+
+    @Autowired
+    private FineEventBroadcaster fineEventBroadcaster;
+
+    @Test
+    void bulkIssuanceReachesASlowSubscriberAsOneSummary() {
+        // Takes one event and then nothing more, like a dashboard whose socket is still draining
+        SlowSubscriber dashboard = new SlowSubscriber();
+        fineEventBroadcaster.subscribe().subscribe(dashboard);
+        long evicted = stat("evictedSlowConsumers");
+
+        List<FineRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            FineRequest request = new FineRequest();
+            request.setLicensePlateNumber("BULK" + i);
+            request.setAmount(50.0);
+            request.setViolationType("NO_PARKING");
+            requests.add(request);
+        }
+        List<BulkFineResult> results = fineService.createFines(requests, "system");
+
+        assertEquals(1200, results.stream().filter(BulkFineResult::isSuccess).count());
+        assertEquals(evicted, stat("evictedSlowConsumers"));
+        dashboard.request(1);
+        Map<?, ?> summary = (Map<?, ?>) dashboard.events.get(1).data();
+        assertEquals("BULK_CREATED", summary.get("type"));
+        assertEquals(1200L, summary.get("created"));
+        assertTrue(((Number) ((Map<?, ?>) summary.get("counters")).get("totalFines")).longValue() >= 1200);
+        dashboard.dispose();
+    }
+
+    private long stat(String name) {
+        return ((Number) fineEventBroadcaster.getStats().get(name)).longValue();
+    }
+
+    private static final class SlowSubscriber extends BaseSubscriber<ServerSentEvent<Object>> {
+        final List<ServerSentEvent<Object>> events = new ArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<Object> event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.Fine;
+import com.smartlpd.repository.FineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs against an in-memory H2 database in place of MySQL
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class FineExportServiceTest {
+
+    private static final int ROWS = 2500;
+
+    @Autowired
+    private FineExportService fineExportService;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Test
+    void ndjsonExportFlushesOncePerThousandRowsNotPerRow() {
+        List<Fine> fines = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            fines.add(new Fine("EXP" + i, 100.0, "SPEEDING", null, LocalDateTime.now().minusDays(1), null));
+        }
+        fineRepository.saveAll(fines);
+
+        CountingOutputStream out = new CountingOutputStream();
+        long rows = fineExportService.export(null, null, null, FineExportService.Format.NDJSON, out);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS, out.newlines);
+        // One flush per 1000 rows, plus one when the writer closes
+        assertEquals(ROWS / 1000 + 1, out.flushes);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        int flushes;
+        int newlines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                newlines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
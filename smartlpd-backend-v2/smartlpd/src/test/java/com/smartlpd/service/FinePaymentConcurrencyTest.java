@@ -0,0 +1,113 @@
+package com.smartlpd.service;
+
+import com.smartlpd.dto.PaymentResult;
+import com.smartlpd.model.Fine;
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.model.PaymentOutcome;
+import com.smartlpd.repository.FineRepository;
+import com.smartlpd.repository.PaymentIdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an in-memory H2 database in place of MySQL
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payments;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.enabled=false",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class FinePaymentConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private FineService fineService;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private PaymentIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    void exactlyOneConcurrentPaymentWins() throws Exception {
+        Fine fine = fineService.createFine("RACE001", 100.0, "SPEEDING", null, LocalDateTime.now(), "system");
+
+        List<PaymentResult> results = race(i -> fineService.payFine(fine.getId(), "RACE001", null));
+
+        assertEquals(1, results.stream().filter(PaymentResult::isPaid).count());
+        assertTrue(results.stream().filter(r -> !r.isPaid()).allMatch(r -> r.getOutcome() == PaymentOutcome.ALREADY_PAID));
+        assertEquals(FineStatus.PAID, fineRepository.findById(fine.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void retriesWithOneIdempotencyKeyReplayTheFirstResult() throws Exception {
+        Fine fine = fineService.createFine("RACE002", 50.0, "RED_LIGHT", null, LocalDateTime.now(), "system");
+
+        List<PaymentResult> results = race(i -> fineService.payFine(fine.getId(), "RACE002", "retry-key-1"));
+
+        // Every retry reports the original success; only one of them actually wrote
+        assertTrue(results.stream().allMatch(PaymentResult::isPaid));
+        assertEquals(THREADS - 1, results.stream().filter(PaymentResult::isReplayed).count());
+        assertEquals(PaymentOutcome.PAID, idempotencyKeyRepository.findById("retry-key-1").orElseThrow().getOutcome());
+
+        PaymentResult later = fineService.payFine(fine.getId(), "RACE002", "retry-key-1");
+        assertTrue(later.isPaid() && later.isReplayed());
+    }
+
+    @Test
+    void cancelledFineCannotBePaid() {
+        Fine fine = fineService.createFine("RACE003", 75.0, "NO_PARKING", null, LocalDateTime.now(), "system");
+        fineService.updateFineStatus(fine.getId(), FineStatus.CANCELLED, "system");
+
+        assertEquals(PaymentOutcome.NOT_PAYABLE, fineService.payFine(fine.getId(), "RACE003", null).getOutcome());
+        assertEquals(PaymentOutcome.NOT_FOUND, fineService.payFine(fine.getId(), "OTHER", null).getOutcome());
+    }
+
+    private interface Attempt {
+        PaymentResult pay(int thread) throws Exception;
+    }
+
+    private static List<PaymentResult> race(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<PaymentResult>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<PaymentResult>) () -> {
+                    start.await();
+                    return attempt.pay(thread);
+                }));
+            }
+            start.countDown();
+            List<PaymentResult> results = new ArrayList<>();
+            for (Future<PaymentResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
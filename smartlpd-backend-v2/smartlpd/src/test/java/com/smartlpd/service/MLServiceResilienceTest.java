@@ -0,0 +1,161 @@
+package com.smartlpd.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs MLService against a local stub of the Python ML service that can inject latency and failures
+class MLServiceResilienceTest {
+
+    private static final String DETECTED = "{\"success\":true,\"license_plate\":\"ABC123\",\"confidence\":0.9}";
+
+    private HttpServer stub;
+    private final AtomicInteger detectCalls = new AtomicInteger();
+    private final AtomicLong latencyMs = new AtomicLong();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/detect", exchange -> {
+            detectCalls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            sleep(latencyMs.get());
+            respond(exchange, failing.get() ? 500 : 200, DETECTED);
+        });
+        stub.createContext("/health", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, healthy.get() ? 200 : 503, "{\"status\":\"ok\"}");
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void returnsResultFromHealthyService() {
+        MLService mlService = mlService(new MLServiceResilience(5, 8, 2000, 5000, 4.0));
+
+        Map<String, Object> result = mlService.detectLicensePlate("aW1hZ2U=").block();
+
+        assertEquals(Boolean.TRUE, result.get("success"));
+        assertEquals("ABC123", result.get("license_plate"));
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailuresAndFailsFast() {
+        MLServiceResilience resilience = new MLServiceResilience(3, 8, 2000, 5000, 4.0);
+        MLService mlService = mlService(resilience);
+        failing.set(true);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Boolean.FALSE, mlService.detectLicensePlate("aW1hZ2U=").block().get("success"));
+        }
+        assertEquals(MLServiceResilience.CircuitState.OPEN, resilience.getState());
+
+        long start = System.nanoTime();
+        Map<String, Object> result = mlService.detectLicensePlate("aW1hZ2U=").block();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("SERVICE_UNAVAILABLE", result.get("license_plate"));
+        assertEquals(3, detectCalls.get(), "open circuit must not reach the ML service");
+        assertTrue(elapsedMs < 100, "open circuit should fail fast, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void healthProbeOpensAndClosesCircuit() {
+        MLServiceResilience resilience = new MLServiceResilience(3, 8, 2000, 5000, 4.0);
+        MLService mlService = mlService(resilience);
+
+        healthy.set(false);
+        mlService.probeHealth();
+        assertEquals(MLServiceResilience.CircuitState.OPEN, resilience.getState());
+        assertEquals("SERVICE_UNAVAILABLE", mlService.detectLicensePlate("aW1hZ2U=").block().get("license_plate"));
+        assertEquals(0, detectCalls.get());
+
+        healthy.set(true);
+        mlService.probeHealth();
+        assertEquals(MLServiceResilience.CircuitState.CLOSED, resilience.getState());
+        assertEquals("ABC123", mlService.detectLicensePlate("aW1hZ2U=").block().get("license_plate"));
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondLimit() {
+        MLService mlService = mlService(new MLServiceResilience(100, 2, 2000, 5000, 4.0));
+        latencyMs.set(500);
+
+        List<Map<String, Object>> results = Flux.range(0, 6)
+                .flatMap(i -> mlService.detectLicensePlate("aW1hZ2U="), 6)
+                .collectList()
+                .block();
+
+        long succeeded = results.stream().filter(r -> Boolean.TRUE.equals(r.get("success"))).count();
+        assertEquals(2, succeeded);
+        assertEquals(2, detectCalls.get());
+    }
+
+    @Test
+    void timeoutAdaptsToObservedLatency() {
+        MLServiceResilience resilience = new MLServiceResilience(100, 8, 200, 5000, 4.0);
+        MLService mlService = mlService(resilience);
+        latencyMs.set(10);
+
+        for (int i = 0; i < 10; i++) {
+            mlService.detectLicensePlate("aW1hZ2U=").block();
+        }
+        assertTrue(resilience.currentTimeout().toMillis() < 1000,
+                "timeout should shrink toward observed latency, was " + resilience.currentTimeout());
+
+        latencyMs.set(1500);
+        long start = System.nanoTime();
+        Map<String, Object> result = mlService.detectLicensePlate("aW1hZ2U=").block();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("SERVICE_UNAVAILABLE", result.get("license_plate"));
+        assertTrue(elapsedMs < 1500, "slow call should be cut by the adaptive timeout, took " + elapsedMs + "ms");
+    }
+
+    private MLService mlService(MLServiceResilience resilience) {
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        return new MLService(url, 16, 100, 5000, 1000, 1000, 10000, resilience);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
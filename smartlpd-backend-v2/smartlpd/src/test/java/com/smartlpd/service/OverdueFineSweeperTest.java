@@ -0,0 +1,70 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.Fine;
+import com.smartlpd.repository.FineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an in-memory H2 database in place of MySQL; sweeps are triggered by hand
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:overdue;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "fines.stream.fetch-size=100",
+        "fines.overdue.initial-delay-ms=3600000",
+        "fines.overdue.late-fee=10",
+        "jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-00",
+        "ml.service.url=http://localhost:1"
+})
+class OverdueFineSweeperTest {
+
+    @Autowired
+    private OverdueFineSweeper sweeper;
+
+    @Autowired
+    private FineService fineService;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private FineStatistics fineStatistics;
+
+    @Autowired
+    private FineEventBroadcaster fineEventBroadcaster;
+
+    @Test
+    void backdatedFineIssuedAfterASweepIsFlaggedByTheNextOne() {
+        sweeper.sweep();
+
+        // Violation 40 days ago, so the fine was already 10 days past due when it was issued
+        Fine fine = fineService.createFine("LATE001", 100.0, "SPEEDING", null, LocalDateTime.now().minusDays(40), "system");
+        Fine current = fineService.createFine("LATE002", 100.0, "SPEEDING", null, LocalDateTime.now(), "system");
+        long published = published();
+
+        sweeper.sweep();
+
+        Fine flagged = fineRepository.findById(fine.getId()).orElseThrow();
+        assertTrue(flagged.isOverdue());
+        assertEquals(110.0, flagged.getAmount());
+        assertFalse(fineRepository.findById(current.getId()).orElseThrow().isOverdue());
+
+        // Counters include the late fee and dashboards were pushed a refresh
+        assertEquals(210.0, ((Number) fineStatistics.getStats().get("outstandingAmount")).doubleValue());
+        assertEquals(published + 1, published());
+    }
+
+    private long published() {
+        return ((Number) fineEventBroadcaster.getStats().get("published")).longValue();
+    }
+}
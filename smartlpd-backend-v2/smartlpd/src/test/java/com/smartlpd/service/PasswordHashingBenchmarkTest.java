@@ -0,0 +1,103 @@
+package com.smartlpd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Login storm (many request threads checking passwords) alongside a light "detect" request loop:
+// BCrypt on the request threads vs BCrypt on the bounded hashing pool.
+//   mvn test -Dtest=PasswordHashingBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHashingBenchmarkTest {
+
+    private static final int LOGIN_THREADS = Runtime.getRuntime().availableProcessors() * 8;
+    private static final int OTHER_THREADS = 4;
+    private static final long DURATION_MS = 10_000;
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final String hash = encoder.encode("password123");
+
+    @Test
+    void loginStormWithAndWithoutHashingPool() throws Exception {
+        run("request threads", encoder::matches);
+
+        PasswordHashingExecutor pool = new PasswordHashingExecutor(encoder, 0, 64, 5000, 2);
+        run("hashing pool   ", pool::matches);
+        System.out.println("pool stats: " + pool.getStats());
+        pool.shutdown();
+    }
+
+    private void run(String label, BiPredicate<String, String> matcher) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(LOGIN_THREADS + OTHER_THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder logins = new LongAdder();
+        LongAdder rejectedLogins = new LongAdder();
+        List<Long> otherLatencies = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < LOGIN_THREADS; i++) {
+            threads.execute(() -> {
+                while (running.get()) {
+                    try {
+                        assertTrue(matcher.test("password123", hash));
+                        logins.increment();
+                    } catch (PasswordHashingExecutor.HashingRejectedException e) {
+                        rejectedLogins.increment();
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < OTHER_THREADS; i++) {
+            threads.execute(() -> {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    otherRequest();
+                    otherLatencies.add(System.nanoTime() - start);
+                    sleep(5);
+                }
+            });
+        }
+
+        Thread.sleep(DURATION_MS);
+        running.set(false);
+        threads.shutdown();
+        threads.awaitTermination(30, TimeUnit.SECONDS);
+
+        List<Long> sorted = new ArrayList<>(otherLatencies);
+        Collections.sort(sorted);
+        System.out.printf("%s: %6.1f logins/s, %d rejected, other requests p50 %.2f ms p99 %.2f ms (%d)%n", label,
+                logins.sum() * 1000.0 / DURATION_MS, rejectedLogins.sum(),
+                sorted.get(sorted.size() / 2) / 1e6, sorted.get((int) (sorted.size() * 0.99)) / 1e6, sorted.size());
+    }
+
+    // Stand-in for a cheap CPU-bound request such as a fine lookup served from cache
+    private static void otherRequest() {
+        long acc = 0;
+        for (int i = 0; i < 200_000; i++) {
+            acc += Long.rotateLeft(acc ^ i, 7);
+        }
+        if (acc == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartlpd.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlateMatchIndexTest {
+
+    @Test
+    void lookAlikeSubstitutionCostsHalfAnEdit() {
+        assertEquals(0, PlateMatchIndex.distance("MH12AB1234", "MH12AB1234"));
+        assertEquals(1, PlateMatchIndex.distance("MH12AB1234", "MH12A81234"));
+        assertEquals(2, PlateMatchIndex.distance("MH12AB1234", "MH12AC1234"));
+        assertEquals(2, PlateMatchIndex.distance("MH12AB1234", "MH12AB123"));
+        assertEquals(3, PlateMatchIndex.distance("0I8", "O1B"));
+    }
+
+    @Test
+    void findsMisreadPlateRankedByDistance() {
+        PlateMatchIndex index = new PlateMatchIndex();
+        ReflectionTestUtils.setField(index, "maxDistanceLimit", 4);
+        for (String plate : List.of("MH12AB1234", "MH12AC1234", "KA01XY0001", "DL8CAF5030", "MH12-AB-1234")) {
+            index.add(plate);
+        }
+
+        List<PlateMatchIndex.Candidate> candidates = index.findCandidates("MH12A81Z34", 2, 10);
+
+        assertEquals(1, candidates.size());
+        assertEquals("MH12AB1234", candidates.get(0).getLicensePlateNumber());
+        assertEquals(2, candidates.get(0).getDistance());
+
+        List<PlateMatchIndex.Candidate> wider = index.findCandidates("MH12A81234", 4, 10);
+        assertEquals("MH12AB1234", wider.get(0).getLicensePlateNumber());
+        assertTrue(wider.stream().anyMatch(c -> c.getLicensePlateNumber().equals("MH12AC1234")));
+        assertTrue(index.findCandidates("KA0IXYOO01", 4, 10).stream()
+                .anyMatch(c -> c.getLicensePlateNumber().equals("KA01XY0001")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartlpd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// n-gram plate index vs the old LOWER(plate) LIKE '%term%' scan at 1M fines. The scan is emulated in-JVM
+// (a lower bound for what MySQL does); pass -Dbenchmark.jdbcUrl (with .user/.password) to also time the
+// original query against a real fines table.
+//   mvn test -Dtest=PlateSearchIndexBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PlateSearchIndexBenchmarkTest {
+
+    private static final int FINES = Integer.getInteger("benchmark.fines", 1_000_000);
+    private static final String[] TERMS = {"MH12", "AB12", "7Q", "XZ9", "K"};
+    private static final int PAGE = 50;
+    private static final int ROUNDS = 20;
+
+    private static final class Row {
+        final long id;
+        final String plate;
+        final LocalDateTime violationDate;
+
+        Row(long id, String plate, LocalDateTime violationDate) {
+            this.id = id;
+            this.plate = plate;
+            this.violationDate = violationDate;
+        }
+    }
+
+    @Test
+    void indexedSearchAgainstFullScan() throws Exception {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Row> rows = new ArrayList<>(FINES);
+        PlateSearchIndex index = new PlateSearchIndex();
+        for (int i = 0; i < FINES; i++) {
+            Row row = new Row(i + 1, randomPlate(random), start.plusMinutes(random.nextInt(1_000_000)));
+            rows.add(row);
+            index.add(row.id, row.plate, row.violationDate);
+        }
+        System.out.println("index: " + index.getStats());
+
+        for (String term : TERMS) {
+            long indexNanos = 0;
+            long scanNanos = 0;
+            List<PlateSearchIndex.Hit> hits = null;
+            List<Row> scanned = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long t0 = System.nanoTime();
+                hits = index.search(term, false, null, PAGE);
+                indexNanos += System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                scanned = scan(rows, term);
+                scanNanos += System.nanoTime() - t0;
+            }
+            assertEquals(scanned.size(), hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(scanned.get(i).id, hits.get(i).getFineId());
+            }
+            System.out.printf("%-6s index %8.3f ms   scan %8.3f ms%n", term,
+                    indexNanos / 1e6 / ROUNDS, scanNanos / 1e6 / ROUNDS);
+        }
+
+        String jdbcUrl = System.getProperty("benchmark.jdbcUrl");
+        if (jdbcUrl != null) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                    System.getProperty("benchmark.user"), System.getProperty("benchmark.password"));
+                 PreparedStatement statement = connection.prepareStatement("SELECT * FROM fines WHERE "
+                         + "LOWER(license_plate_number) LIKE LOWER(CONCAT('%', ?, '%')) ORDER BY violation_date DESC")) {
+                for (String term : TERMS) {
+                    statement.setString(1, term);
+                    long t0 = System.nanoTime();
+                    int count = 0;
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            count++;
+                        }
+                    }
+                    System.out.printf("%-6s mysql LIKE %8.3f ms (%d rows)%n", term, (System.nanoTime() - t0) / 1e6, count);
+                }
+            }
+        }
+    }
+
+    // What the old query did: lower-case every plate, substring match, sort by recency
+    private static List<Row> scan(List<Row> rows, String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Row> matches = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.plate.toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(row);
+            }
+        }
+        matches.sort(Comparator.comparing((Row r) -> r.violationDate).thenComparingLong(r -> r.id).reversed());
+        return matches.subList(0, Math.min(PAGE, matches.size()));
+    }
+
+    private static String randomPlate(Random random) {
+        String letters = "ABCDEFGHJKLMNPQRSTUVWXYZ";
+        return "" + letters.charAt(random.nextInt(letters.length())) + letters.charAt(random.nextInt(letters.length()))
+                + String.format("%02d", random.nextInt(100))
+                + letters.charAt(random.nextInt(letters.length())) + letters.charAt(random.nextInt(letters.length()))
+                + String.format("%04d", random.nextInt(10000));
+    }
+}
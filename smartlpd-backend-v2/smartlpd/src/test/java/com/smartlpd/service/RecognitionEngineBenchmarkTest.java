@@ -0,0 +1,70 @@
+package com.smartlpd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Compares the HTTP (Python) and in-process engines on a fixed corpus of plate images.
+//   mvn test -Dtest=RecognitionEngineBenchmarkTest -Dbenchmark.corpus=/path/to/images -Dbenchmark.mlUrl=http://localhost:5000
+@EnabledIfSystemProperty(named = "benchmark.corpus", matches = ".+")
+class RecognitionEngineBenchmarkTest {
+
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+
+    @Test
+    void compareEnginesOnCorpus() throws Exception {
+        List<Path> corpus;
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("benchmark.corpus")))) {
+            corpus = files.filter(p -> p.toString().matches("(?i).*\\.(png|jpe?g)$")).sorted().collect(Collectors.toList());
+        }
+        assertFalse(corpus.isEmpty(), "Corpus directory has no .png/.jpg images");
+
+        PlateRecognitionEngine local = new LocalPlateRecognitionEngine("tesseract", 10000, 0);
+        String mlUrl = System.getProperty("benchmark.mlUrl");
+        PlateRecognitionEngine http = mlUrl == null ? null
+                : new MLService(mlUrl, 16, 100, 5000, 2000, 2000, 10000, new MLServiceResilience(1000, 16, 60000, 60000, 1.0));
+
+        long localNanos = 0;
+        long httpNanos = 0;
+        int agreements = 0;
+        for (Path image : corpus) {
+            String imageData = Base64.getEncoder().encodeToString(Files.readAllBytes(image));
+            Map<String, Object> localResult = null;
+            Map<String, Object> httpResult = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                localResult = local.detectLicensePlate(imageData).block();
+                localNanos += System.nanoTime() - start;
+                if (http != null) {
+                    start = System.nanoTime();
+                    httpResult = http.detectLicensePlate(imageData).block();
+                    httpNanos += System.nanoTime() - start;
+                }
+            }
+            System.out.printf("%-40s local=%-12s %s%n", image.getFileName(), localResult.get("license_plate"),
+                    httpResult == null ? "" : "http=" + httpResult.get("license_plate"));
+            if (httpResult != null && Objects.equals(localResult.get("license_plate"), httpResult.get("license_plate"))) {
+                agreements++;
+            }
+        }
+
+        int runs = corpus.size() * ROUNDS;
+        System.out.printf("local engine: %.1f ms/image%n", localNanos / 1e6 / runs);
+        if (http != null) {
+            System.out.printf("http engine:  %.1f ms/image, agreement %d/%d images%n",
+                    httpNanos / 1e6 / runs, agreements, corpus.size());
+        }
+        ((LocalPlateRecognitionEngine) local).shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartlpd.service;
+
+import com.smartlpd.model.Fine;
+import com.smartlpd.model.FineStatus;
+import com.smartlpd.repository.DetectionHistoryRepository;
+import com.smartlpd.repository.FineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RollupServiceTest {
+
+    @Test
+    void changesAppliedWhileTheBackfillQueriesRunAreKept() {
+        FineRepository fineRepository = mock(FineRepository.class);
+        DetectionHistoryRepository detectionRepository = mock(DetectionHistoryRepository.class);
+        RollupService rollups = new RollupService();
+        ReflectionTestUtils.setField(rollups, "fineRepository", fineRepository);
+        ReflectionTestUtils.setField(rollups, "detectionHistoryRepository", detectionRepository);
+        ReflectionTestUtils.setField(rollups, "retentionDays", 30);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> issued = new ArrayList<>();
+        issued.add(new Object[]{now.toLocalDate(), "SPEEDING", "System", 2L, 200.0});
+        List<Object[]> hours = new ArrayList<>();
+        hours.add(new Object[]{now.toLocalDate(), now.getHour(), 5L});
+        // A fine is issued and a plate detected after the snapshot was taken, before the maps are swapped
+        when(fineRepository.rollupIssuedByDay(any())).thenAnswer(invocation -> {
+            rollups.onFineChanged(FineChangedEvent.created(new Fine("ROLL001", 100.0, "SPEEDING", null, now, null)));
+            rollups.recordDetection(now);
+            return issued;
+        });
+        when(fineRepository.rollupPaidByDay(eq(FineStatus.PAID), any())).thenReturn(Collections.emptyList());
+        when(detectionRepository.rollupByHour(any())).thenReturn(hours);
+
+        rollups.backfill();
+
+        List<Map<String, Object>> fines = rollups.queryFines(now.toLocalDate(), now.toLocalDate(), RollupService.GroupBy.NONE);
+        assertEquals(3L, fines.get(0).get("issued"));
+        assertEquals(300.0, fines.get(0).get("issuedAmount"));
+        List<Map<String, Object>> detections = rollups.queryDetections(LocalDate.now().atStartOfDay(), now.plusHours(1), true);
+        assertEquals(6L, detections.get(0).get("detections"));
+    }
+}
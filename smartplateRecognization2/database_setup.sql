@@ -5,13 +5,16 @@ USE smartlpd;
 -- Create Users Table
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) UNIQUE NOT NULL,
-    email VARCHAR(100) UNIQUE NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
     password VARCHAR(100) NOT NULL,
     full_name VARCHAR(100) NOT NULL,
     role ENUM('CITIZEN', 'AUTHORITY') NOT NULL DEFAULT 'CITIZEN',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Named so registration can tell which one a duplicate insert violated
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
 );
 
 -- Create Detection History Table
@@ -25,6 +28,16 @@ CREATE TABLE IF NOT EXISTS detection_history (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
 );
 
+-- Id sequence for detection_history (Hibernate emulates sequences with a table on MySQL).
+-- Sequence ids let the background writer batch its inserts; AUTO_INCREMENT ids cannot be batched.
+CREATE TABLE IF NOT EXISTS detection_history_seq (
+    next_val BIGINT
+);
+-- Hibernate's pooled optimizer hands out the 50 ids ending at next_val, so seed it a full block past MAX(id).
+INSERT INTO detection_history_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM detection_history
+WHERE NOT EXISTS (SELECT 1 FROM detection_history_seq);
+
 -- Create Fines Table
 CREATE TABLE IF NOT EXISTS fines (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -36,11 +49,21 @@ CREATE TABLE IF NOT EXISTS fines (
     due_date TIMESTAMP,
     status ENUM('UNPAID', 'PAID', 'CANCELLED', 'APPEALED') DEFAULT 'UNPAID',
     issued_by BIGINT,
+    overdue BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (issued_by) REFERENCES users(id) ON DELETE SET NULL
 );
 
+-- Stored results of fine payments by client Idempotency-Key, replayed on retries
+CREATE TABLE IF NOT EXISTS payment_idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    fine_id BIGINT NOT NULL,
+    license_plate_number VARCHAR(20) NOT NULL,
+    outcome VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create Indexes for better performance
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
@@ -49,6 +72,11 @@ CREATE INDEX idx_detection_history_license_plate ON detection_history(license_pl
 CREATE INDEX idx_fines_license_plate ON fines(license_plate_number);
 CREATE INDEX idx_fines_status ON fines(status);
 CREATE INDEX idx_fines_issued_by ON fines(issued_by);
+-- Keyset pagination of the fine listing (newest first, optional status filter)
+CREATE INDEX idx_fines_violation_date_id ON fines(violation_date, id);
+CREATE INDEX idx_fines_status_violation_date_id ON fines(status, violation_date, id);
+-- Overdue sweep (newly due UNPAID fines not yet flagged)
+CREATE INDEX idx_fines_status_overdue_due_date ON fines(status, overdue, due_date);
 
 -- Insert Sample Data (Optional)
 INSERT INTO users (username, email, password, full_name, role) VALUES
@@ -61,10 +89,20 @@ INSERT INTO fines (license_plate_number, amount, violation_type, description, vi
 ('XYZ789', 50.00, 'RED_LIGHT', 'Ran red light at intersection', DATE_SUB(NOW(), INTERVAL 15 DAY), DATE_SUB(NOW(), INTERVAL 15 DAY) + INTERVAL 30 DAY, 'PAID', 2),
 ('DEF456', 75.00, 'NO_PARKING', 'Parked in no parking zone', DATE_SUB(NOW(), INTERVAL 5 DAY), DATE_SUB(NOW(), INTERVAL 5 DAY) + INTERVAL 30 DAY, 'UNPAID', 2);
 
+-- Id sequence for fines, so bulk issuance can batch its inserts (same scheme as detection_history_seq).
+-- Seeded after the sample fines so their AUTO_INCREMENT ids are never handed out again.
+CREATE TABLE IF NOT EXISTS fines_seq (
+    next_val BIGINT
+);
+INSERT INTO fines_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM fines
+WHERE NOT EXISTS (SELECT 1 FROM fines_seq);
+
 -- Show created tables
 SHOW TABLES;
 
 -- Describe tables structure
 DESCRIBE users;
 DESCRIBE detection_history;
-DESCRIBE fines;
\ No newline at end of file
+DESCRIBE fines;
+DESCRIBE payment_idempotency_keys;
\ No newline at end of file
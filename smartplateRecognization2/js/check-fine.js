@@ -98,6 +98,9 @@ async function checkFines() {
         console.log('Response status:', response.status);
 
         if (!response.ok) {
+            if (response.status === 429) {
+                throw new Error(`Too many lookups, please retry in ${response.headers.get('Retry-After') || 'a few'} seconds`);
+            }
             if (response.status === 500) {
                 const errorData = await response.json();
                 throw new Error(`Server error: ${errorData.message || 'Internal server error'}`);
@@ -109,7 +112,7 @@ async function checkFines() {
         console.log('Fines check result:', result);
 
         if (result.success) {
-            displayFines(result.fines, licensePlate);
+            displayFines(result.fines, licensePlate, result.candidates);
             showStatus('Fines retrieved successfully', 'success');
         } else {
             showStatus('Error: ' + result.message, 'error');
@@ -123,7 +126,13 @@ async function checkFines() {
     }
 }
 
-function displayFines(fines, licensePlate) {
+// Re-run the check with a look-alike plate suggested by the backend
+function checkCandidate(licensePlate) {
+    document.getElementById('licensePlate').value = licensePlate;
+    checkFines();
+}
+
+function displayFines(fines, licensePlate, candidates) {
     const resultsSection = document.getElementById('resultsSection');
     const finesList = document.getElementById('finesList');
     
@@ -138,6 +147,11 @@ function displayFines(fines, licensePlate) {
                 <i class="fas fa-check-circle" style="font-size: 3rem; color: var(--success); margin-bottom: 1rem;"></i>
                 <h3>No fines found!</h3>
                 <p>No outstanding fines found for license plate: <strong>${licensePlate}</strong></p>
+                ${candidates && candidates.length > 0 ? `
+                    <p>Did you mean: ${candidates.map(c =>
+                        `<a href="#" onclick="checkCandidate('${c.licensePlateNumber}'); return false;">${c.licensePlateNumber}</a>`
+                    ).join(', ')}?</p>
+                ` : ''}
             </div>
         `;
     } else {
@@ -160,7 +174,7 @@ function displayFines(fines, licensePlate) {
                         <p><strong>Description:</strong> ${fine.description || 'No description'}</p>
                         <p><strong>Violation Date:</strong> ${violationDate}</p>
                         <p><strong>Due Date:</strong> ${dueDate}</p>
-                        <p><strong>Status:</strong> <span class="status-badge">${fine.status}</span></p>
+                        <p><strong>Status:</strong> <span class="status-badge">${fine.status}</span>${fine.overdue && fine.status === 'UNPAID' ? ' <span class="status-badge">OVERDUE</span>' : ''}</p>
                         <p><strong>Issued By:</strong> ${fine.issuedByUsername || 'System'}</p>
                     </div>
                     ${fine.status === 'UNPAID' ? `
@@ -181,16 +195,24 @@ function displayFines(fines, licensePlate) {
     resultsSection.style.display = 'block';
 }
 
+// One Idempotency-Key per fine, reused if the payment is retried, so a fine is never paid twice
+const paymentKeys = {};
+
 async function payFine(fineId, licensePlate) {
     if (!confirm('Are you sure you want to pay this fine?')) {
         return;
     }
 
+    if (!paymentKeys[fineId]) {
+        paymentKeys[fineId] = crypto.randomUUID();
+    }
+
     try {
         const response = await fetch(`${BACKEND_URL}/api/fines/pay/${fineId}`, {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Idempotency-Key': paymentKeys[fineId]
             },
             body: JSON.stringify({ licensePlateNumber: licensePlate })
         });
@@ -268,6 +268,10 @@ async function detectLicensePlate() {
             return;
         }
 
+        if (response.status === 429) {
+            throw new Error(`Too many detections, please retry in ${response.headers.get('Retry-After') || 'a few'} seconds`);
+        }
+
         if (!response.ok) {
             throw new Error(`HTTP error! status: ${response.status}`);
         }
@@ -1,7 +1,9 @@
 const BACKEND_URL = 'https://smartlpd-backend.onrender.com';
 
-// Global variable to store all fines for search filtering
+// Global variable to store the fines loaded so far, for search filtering
 let allFines = [];
+// Cursor for the next page of /api/fines (null when everything is loaded)
+let nextFinesCursor = null;
 
 // Check authentication and role
 document.addEventListener('DOMContentLoaded', function() {
@@ -23,6 +25,7 @@ document.addEventListener('DOMContentLoaded', function() {
     updateNavigation();
     loadFineStats();
     loadAllFines();
+    subscribeToFineEvents();
 
     // Pre-fill license plate if detected from detection page
     const detectedPlate = localStorage.getItem('detectedPlate');
@@ -61,61 +64,130 @@ function updateNavigation() {
     }
 }
 
-// Search functionality
+// Search functionality: plate search runs on the server so it covers fines not loaded yet
+let searchTimer = null;
+
 function handleSearch(event) {
-    const searchTerm = event.target.value.trim().toLowerCase();
-    
+    const searchTerm = event.target.value.trim();
+
+    clearTimeout(searchTimer);
     if (!searchTerm) {
         // If search is empty, show all fines
         displayAllFines(allFines);
         return;
     }
-    
-    // Filter fines based on search term
-    const filteredFines = allFines.filter(fine => 
-        fine.licensePlateNumber.toLowerCase().includes(searchTerm) ||
-        fine.violationType.toLowerCase().includes(searchTerm) ||
-        (fine.description && fine.description.toLowerCase().includes(searchTerm)) ||
-        fine.status.toLowerCase().includes(searchTerm)
-    );
-    
-    displayAllFines(filteredFines);
+
+    searchTimer = setTimeout(() => searchFines(searchTerm), 250);
 }
 
-// Export functionality (basic implementation)
-function exportFines() {
+async function searchFines(searchTerm) {
     try {
-        // Create CSV content
-        let csvContent = "License Plate,Amount,Violation Type,Description,Violation Date,Due Date,Status,Issued By\n";
-        
-        allFines.forEach(fine => {
-            const violationDate = new Date(fine.violationDate).toLocaleDateString();
-            const dueDate = fine.dueDate ? new Date(fine.dueDate).toLocaleDateString() : 'Not set';
-            const description = fine.description ? `"${fine.description.replace(/"/g, '""')}"` : '';
-            
-            csvContent += `"${fine.licensePlateNumber}",${fine.amount},"${fine.violationType}",${description},"${violationDate}","${dueDate}","${fine.status}","${fine.issuedByUsername || 'System'}"\n`;
+        const response = await fetch(`${BACKEND_URL}/api/fines/search?q=${encodeURIComponent(searchTerm)}&size=100`, {
+            method: 'GET',
+            headers: {
+                'Content-Type': 'application/json'
+            }
         });
-        
-        // Create and download file
-        const blob = new Blob([csvContent], { type: 'text/csv;charset=utf-8;' });
+
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const result = await response.json();
+        if (result.success) {
+            displayAllFines(result.fines);
+        }
+    } catch (error) {
+        console.error('Error searching fines:', error);
+        showStatus('Failed to search fines', 'error');
+    }
+}
+
+// Export functionality: the server streams every fine as CSV, not just the pages loaded here
+function exportFines() {
+    try {
         const link = document.createElement('a');
-        const url = URL.createObjectURL(blob);
-        
-        link.setAttribute('href', url);
+        link.setAttribute('href', `${BACKEND_URL}/api/fines/export?format=CSV`);
         link.setAttribute('download', `fines_export_${new Date().toISOString().split('T')[0]}.csv`);
         link.style.visibility = 'hidden';
-        
+
         document.body.appendChild(link);
         link.click();
         document.body.removeChild(link);
-        
-        showStatus('Fines exported successfully!', 'success');
+
+        showStatus('Fines export started', 'success');
     } catch (error) {
         console.error('Error exporting fines:', error);
         showStatus('Failed to export fines', 'error');
     }
 }
 
+// Live updates: the backend pushes every fine change with fresh counters, so nothing is reloaded
+let fineEvents = null;
+
+function subscribeToFineEvents() {
+    if (!window.EventSource) {
+        return;
+    }
+    fineEvents = new EventSource(`${BACKEND_URL}/api/fines/events`);
+
+    fineEvents.addEventListener('hello', event => {
+        updateStatCounters(JSON.parse(event.data).counters);
+    });
+
+    fineEvents.addEventListener('fine', event => {
+        const change = JSON.parse(event.data);
+        updateStatCounters(change.counters);
+        applyFineChange(change);
+    });
+
+    // EventSource reconnects by itself; catch up on anything missed while disconnected
+    fineEvents.onerror = () => {
+        console.warn('Fine event stream interrupted, reconnecting...');
+        fineEvents.onopen = () => {
+            fineEvents.onopen = null;
+            loadAllFines();
+        };
+    };
+}
+
+function updateStatCounters(counters) {
+    if (!counters) {
+        return;
+    }
+    document.getElementById('totalFines').textContent = counters.totalFines || 0;
+    document.getElementById('unpaidFines').textContent = counters.unpaidFines || 0;
+    document.getElementById('paidFines').textContent = counters.paidFines || 0;
+}
+
+function applyFineChange(change) {
+    // Bulk issuance and the overdue sweep change many fines at once; reload rather than patch
+    if (change.type === 'BULK_CREATED' || change.type === 'OVERDUE_SWEEP') {
+        loadAllFines();
+        return;
+    }
+    const existing = allFines.find(fine => fine.id === change.fineId);
+    if (change.type === 'CREATED' && !existing) {
+        allFines.unshift({
+            id: change.fineId,
+            licensePlateNumber: change.licensePlateNumber,
+            amount: change.amount,
+            violationType: change.violationType,
+            violationDate: change.violationDate,
+            status: change.status,
+            issuedByUsername: change.issuedByUsername
+        });
+    } else if (existing) {
+        existing.status = change.status;
+    } else {
+        return;
+    }
+    // Leave an active search result alone
+    if (!document.getElementById('fineSearch').value.trim()) {
+        displayAllFines(allFines);
+    }
+}
+
 async function loadFineStats() {
     try {
         console.log('📊 Loading fine statistics...');
@@ -196,9 +268,7 @@ async function issueFine() {
             document.getElementById('fineDescription').value = '';
             // Clear search
             document.getElementById('fineSearch').value = '';
-            // Refresh both stats and fines list
-            loadFineStats();
-            loadAllFines();
+            // Stats and the list update from the fine event stream
         } else {
             alert('Error: ' + result.message);
         }
@@ -211,11 +281,17 @@ async function issueFine() {
     }
 }
 
-async function loadAllFines() {
+// Loads the first page; "Load more" appends the following pages
+async function loadAllFines(append = false) {
     try {
-        console.log('📋 Loading all fines...');
-        
-        const response = await fetch(`${BACKEND_URL}/api/fines`, {
+        console.log('📋 Loading fines...');
+
+        let url = `${BACKEND_URL}/api/fines?size=50`;
+        if (append && nextFinesCursor) {
+            url += `&cursor=${encodeURIComponent(nextFinesCursor)}`;
+        }
+
+        const response = await fetch(url, {
             method: 'GET',
             headers: {
                 'Content-Type': 'application/json'
@@ -227,10 +303,11 @@ async function loadAllFines() {
         }
 
         const result = await response.json();
-        console.log('All fines result:', result);
+        console.log('Fines page result:', result);
 
         if (result.success) {
-            allFines = result.fines; // Store fines for search
+            allFines = append ? allFines.concat(result.fines) : result.fines; // Store fines for search
+            nextFinesCursor = result.nextCursor;
             displayAllFines(allFines);
         } else {
             alert('Error: ' + result.message);
@@ -273,7 +350,7 @@ function displayAllFines(fines) {
                     <p><strong>Description:</strong> ${fine.description || 'No description'}</p>
                     <p><strong>Violation Date:</strong> ${violationDate}</p>
                     <p><strong>Due Date:</strong> ${dueDate}</p>
-                    <p><strong>Status:</strong> <span class="status-badge">${fine.status}</span></p>
+                    <p><strong>Status:</strong> <span class="status-badge">${fine.status}</span>${fine.overdue && fine.status === 'UNPAID' ? ' <span class="status-badge">OVERDUE</span>' : ''}</p>
                     <p><strong>Issued By:</strong> ${fine.issuedByUsername || 'System'}</p>
                 </div>
                 <div class="fine-actions">
@@ -289,6 +366,15 @@ function displayAllFines(fines) {
     });
     
     finesHTML += `</div>`;
+    if (nextFinesCursor && fines === allFines) {
+        finesHTML += `
+            <div style="text-align: center; margin-top: 1rem;">
+                <button class="btn btn-outline" onclick="loadAllFines(true)">
+                    <i class="fas fa-chevron-down"></i> Load more
+                </button>
+            </div>
+        `;
+    }
     finesList.innerHTML = finesHTML;
 }
 
@@ -310,9 +396,7 @@ async function updateFineStatus(fineId, status) {
 
         if (result.success) {
             alert('Fine status updated successfully!');
-            // Refresh both stats and fines list
-            loadFineStats();
-            loadAllFines();
+            // Stats and the list update from the fine event stream
         } else {
             alert('Error: ' + result.message);
         }